@@ -0,0 +1,176 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import hudson.BulkChange;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.Job;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Saveable;
+import hudson.model.TaskListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the parameter definitions of action jobs in line with the properties referencing them.
+ * Runs periodically and after a folder with the property is saved, compares the desired StringParameterDefinition(s)
+ * with the definitions of each action job and adds the missing ones with a single save.
+ * The trigger path only checks for drift, which does not save anything unless a definition is missing.
+ */
+@Extension
+public class ActionJobParameterReconciler extends AsyncPeriodicWork {
+
+    private static final Logger LOGGER = Logger.getLogger(ActionJobParameterReconciler.class.getName());
+    private static final long RECURRENCE_MINUTES = SystemProperties.getLong(PipelineTriggerProperty.class.getName() + ".reconcileRecurrenceMinutes", 60L);
+
+    public ActionJobParameterReconciler() {
+        super("MultiBranch Action Triggers parameter reconciliation");
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return TimeUnit.MINUTES.toMillis(RECURRENCE_MINUTES);
+    }
+
+    @Override
+    protected void execute(TaskListener listener) {
+        long start = System.currentTimeMillis();
+        Map<String, Map<String, ParameterDefinition>> desiredDefinitions = new HashMap<>();
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            for (String folderName : ActionJobReferenceIndex.get().getIndexedFolders()) {
+                PipelineTriggerProperty property = getProperty(folderName);
+                if (property != null)
+                    property.collectParameterDefinitions(desiredDefinitions);
+            }
+            PipelineTriggerGlobalConfiguration.get().collectParameterDefinitions(desiredDefinitions);
+            int reconciled = reconcileAll(desiredDefinitions);
+            LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Reconciled parameters of {0} of {1} action jobs in {2} ms",
+                    new Object[]{reconciled, desiredDefinitions.size(), System.currentTimeMillis() - start});
+        }
+    }
+
+    private static PipelineTriggerProperty getProperty(String folderFullName) {
+        AbstractFolder<?> folder = Jenkins.get().getItemByFullName(folderFullName, AbstractFolder.class);
+        return folder == null ? null : folder.getProperties().get(PipelineTriggerProperty.class);
+    }
+
+    static int reconcileAll(Map<String, Map<String, ParameterDefinition>> desiredDefinitions) {
+        int reconciled = 0;
+        for (Map.Entry<String, Map<String, ParameterDefinition>> desired : desiredDefinitions.entrySet()) {
+            Job job = Jenkins.get().getItemByFullName(desired.getKey(), Job.class);
+            if (job != null && reconcile(job, desired.getValue().values()))
+                reconciled++;
+        }
+        return reconciled;
+    }
+
+    /**
+     * Add the desired definitions which @job does not define yet. Existing definitions with the same name are kept.
+     * The Job is only saved, once, if a definition was added.
+     *
+     * @param job                Action job
+     * @param desiredDefinitions Parameter definitions the job needs
+     * @return true if the job was changed
+     */
+    static boolean reconcile(Job job, Collection<ParameterDefinition> desiredDefinitions) {
+        ParametersDefinitionProperty jobParameterProperty = (ParametersDefinitionProperty) job.getProperty(ParametersDefinitionProperty.class);
+        List<ParameterDefinition> jobParameters = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        if (jobParameterProperty != null) {
+            jobParameters.addAll(jobParameterProperty.getParameterDefinitions());
+            names.addAll(jobParameterProperty.getParameterDefinitionNames());
+        }
+        boolean parametersChanged = false;
+        for (ParameterDefinition desiredDefinition : desiredDefinitions) {
+            if (names.add(desiredDefinition.getName())) {
+                jobParameters.add(desiredDefinition);
+                parametersChanged = true;
+            }
+        }
+        if (!parametersChanged)
+            return false;
+        //Try to add job properties. If fails do not stop just log warning.
+        try (BulkChange bulkChange = new BulkChange(job)) {
+            job.removeProperty(ParametersDefinitionProperty.class);
+            job.addProperty(new ParametersDefinitionProperty(jobParameters));
+            bulkChange.commit();
+            return true;
+        } catch (Exception ex) {
+            LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not set String Parameter Definitions." +
+                            " This may affect jobs which are triggered from MultiBranch Pipeline Plugin.",
+                    ex);
+            return false;
+        }
+    }
+
+    /**
+     * Reconcile the action jobs of a folder in the background after the references or parameters of its property changed.
+     * Saves which do not change the desired definitions, e.g. branch indexing saving the project, are ignored,
+     * and the folders changed while a reconciliation is pending are reconciled together.
+     */
+    @Extension
+    public static class SaveableListenerImpl extends SaveableListener {
+
+        private static final long COALESCE_MILLIS = 1000;
+
+        private final Map<String, Map<String, Set<String>>> lastDesiredNames = new ConcurrentHashMap<>();
+        private final Set<String> pendingFolders = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (!(o instanceof AbstractFolder))
+                return;
+            AbstractFolder<?> folder = (AbstractFolder<?>) o;
+            PipelineTriggerProperty property = folder.getProperties().get(PipelineTriggerProperty.class);
+            if (property == null) {
+                lastDesiredNames.remove(folder.getFullName());
+                return;
+            }
+            Map<String, Map<String, ParameterDefinition>> desiredDefinitions = new HashMap<>();
+            property.collectParameterDefinitions(desiredDefinitions);
+            Map<String, Set<String>> desiredNames = new HashMap<>();
+            for (Map.Entry<String, Map<String, ParameterDefinition>> desired : desiredDefinitions.entrySet())
+                desiredNames.put(desired.getKey(), new HashSet<>(desired.getValue().keySet()));
+            if (desiredNames.equals(lastDesiredNames.put(folder.getFullName(), desiredNames)))
+                return;
+            pendingFolders.add(folder.getFullName());
+            if (scheduled.compareAndSet(false, true))
+                Timer.get().schedule(this::reconcilePending, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        private void reconcilePending() {
+            scheduled.set(false);
+            List<String> folderNames = new ArrayList<>(pendingFolders);
+            pendingFolders.removeAll(folderNames);
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                Map<String, Map<String, ParameterDefinition>> desiredDefinitions = new HashMap<>();
+                for (String folderName : folderNames) {
+                    PipelineTriggerProperty property = getProperty(folderName);
+                    if (property != null)
+                        property.collectParameterDefinitions(desiredDefinitions);
+                }
+                reconcileAll(desiredDefinitions);
+            }
+        }
+    }
+}
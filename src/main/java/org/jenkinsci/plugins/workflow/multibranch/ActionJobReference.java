@@ -0,0 +1,161 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.AutoCompletionCandidates;
+import hudson.model.Descriptor;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.util.FormValidation;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.POST;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.stream.Collectors;
+
+/**
+ * Reference to a Job which is triggered by a Pipeline event.
+ * Besides the full name of the Job, a reference can define parameters which are only passed to this Job,
+ * and a condition (same syntax as the Include Filter) which the branch must match for this Job to be triggered.
+ */
+public class ActionJobReference extends AbstractDescribableImpl<ActionJobReference> {
+
+    private String fullName;
+    private List<AdditionalParameter> parameters = new ArrayList<>();
+    private String condition = "";
+    private transient volatile BranchFilter compiledCondition;
+
+    @DataBoundConstructor
+    public ActionJobReference(String fullName) {
+        this.fullName = Util.fixNull(fullName).trim();
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    /**
+     * Point this reference to the new full name of a moved or renamed Job.
+     *
+     * @param fullName New full name of the Job
+     */
+    void relocate(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public List<AdditionalParameter> getParameters() {
+        return parameters;
+    }
+
+    @DataBoundSetter
+    public void setParameters(List<AdditionalParameter> parameters) {
+        if (parameters == null)
+            this.parameters = new ArrayList<>();
+        else
+            this.parameters = parameters;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    @DataBoundSetter
+    public void setCondition(String condition) {
+        this.condition = Util.fixNull(condition).trim();
+        this.compiledCondition = null;
+    }
+
+    /**
+     * @param subject Branch of the event
+     * @return true if there is no condition, or the branch matches the condition
+     */
+    boolean matches(BranchFilter.Subject subject) {
+        if (Util.fixEmpty(this.condition) == null)
+            return true;
+        return this.getCompiledCondition().matches(subject);
+    }
+
+    BranchFilter getCompiledCondition() {
+        BranchFilter filter = this.compiledCondition;
+        if (filter == null) {
+            try {
+                filter = BranchFilter.compile(this.condition);
+            } catch (IllegalArgumentException ex) {
+                filter = BranchFilter.compile("");
+            }
+            this.compiledCondition = filter;
+        }
+        return filter;
+    }
+
+    /**
+     * @return Referenced Job or null if it does not exist or is not visible
+     */
+    public Job resolve() {
+        return Jenkins.get().getItemByFullName(this.fullName, Job.class);
+    }
+
+    protected Object readResolve() {
+        if (this.parameters == null)
+            this.parameters = new ArrayList<>();
+        if (this.condition == null)
+            this.condition = "";
+        return this;
+    }
+
+    /**
+     * Parse full names of the jobs in comma separated format, the format of the original fields.
+     *
+     * @param actionTriggersJobString Full names of the jobs in comma separated format
+     * @return List of ActionJobReference without parameters and conditions
+     */
+    public static List<ActionJobReference> parse(String actionTriggersJobString) {
+        List<ActionJobReference> references = new ArrayList<>();
+        StringTokenizer tokenizer = new StringTokenizer(Util.fixNull(actionTriggersJobString), ",");
+        while (tokenizer.hasMoreTokens()) {
+            String jobName = tokenizer.nextToken().trim();
+            if (!jobName.isEmpty())
+                references.add(new ActionJobReference(jobName));
+        }
+        return references;
+    }
+
+    /**
+     * @param references List of ActionJobReference
+     * @return Full names of the jobs in comma separated format
+     */
+    public static String toCommaSeparatedString(List<ActionJobReference> references) {
+        return references.stream().map(ActionJobReference::getFullName).collect(Collectors.joining(","));
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<ActionJobReference> {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Action Job";
+        }
+
+        public AutoCompletionCandidates doAutoCompleteFullName(@QueryParameter String value) {
+            return PipelineTriggerProperty.DescriptorImpl.autoCompleteCandidates(value);
+        }
+
+        @POST
+        public FormValidation doCheckFullName(@AncestorInPath Item item, @QueryParameter String value) {
+            return PipelineTriggerProperty.DescriptorImpl.checkJobName(item, value);
+        }
+
+        public FormValidation doCheckCondition(@QueryParameter String value) {
+            return PipelineTriggerProperty.DescriptorImpl.checkFilter(value);
+        }
+    }
+}
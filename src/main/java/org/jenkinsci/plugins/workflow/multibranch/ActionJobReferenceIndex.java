@@ -0,0 +1,328 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory reverse index from the full name of an action job to the folders whose PipelineTriggerProperty
+ * references it, and the event types it is referenced for.
+ * When a referenced Job is moved or renamed, only the referencing folders are loaded and rewritten,
+ * instead of iterating every folder on the controller. The index also answers which projects trigger a Job,
+ * see {@link ActionJobTriggersAction}.
+ * The index is built on first use and then maintained from Item events and folder saves.
+ * The build scans the folders without holding the monitor and publishes the result at the end, skipping the folders
+ * changed by events meanwhile. Callers arriving while another thread builds the index scan the folders themselves
+ * instead of waiting.
+ */
+@Extension
+public class ActionJobReferenceIndex extends ItemListener {
+
+    private static final Logger LOGGER = Logger.getLogger(ActionJobReferenceIndex.class.getName());
+
+    private final Map<String, Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>>> referencingFolders = new HashMap<>();
+    private final TreeSet<String> indexedFolders = new TreeSet<>();
+    private final Map<String, Set<String>> referencedJobs = new HashMap<>();
+    private volatile boolean built;
+    private final AtomicBoolean building = new AtomicBoolean();
+    private Set<String> changedDuringBuild;
+
+    public static ActionJobReferenceIndex get() {
+        return ExtensionList.lookupSingleton(ActionJobReferenceIndex.class);
+    }
+
+    /**
+     * @param jobFullName Full name of an action job
+     * @return Full names of the folders referencing the job
+     */
+    public Set<String> getReferencingFolders(String jobFullName) {
+        return this.getReferences(jobFullName).keySet();
+    }
+
+    /**
+     * @param jobFullName Full name of an action job
+     * @return Event types referencing the job by the full names of the folders, sorted by folder name
+     */
+    public Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> getReferences(String jobFullName) {
+        if (!this.ensureBuilt()) {
+            Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> references = new TreeMap<>();
+            for (Map.Entry<String, Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>>> folder : scan().entrySet()) {
+                Set<PipelineTriggerProperty.PipelineTriggerBuildAction> actions = folder.getValue().get(jobFullName);
+                if (actions != null)
+                    references.put(folder.getKey(), actions);
+            }
+            return references;
+        }
+        synchronized (this) {
+            Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> folders = referencingFolders.get(jobFullName);
+            if (folders == null)
+                return Collections.emptyMap();
+            Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> references = new TreeMap<>();
+            for (Map.Entry<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> folder : folders.entrySet())
+                references.put(folder.getKey(), EnumSet.copyOf(folder.getValue()));
+            return references;
+        }
+    }
+
+    /**
+     * @return Full names of the folders referencing any action job
+     */
+    Set<String> getIndexedFolders() {
+        if (!this.ensureBuilt())
+            return new TreeSet<>(scan().keySet());
+        synchronized (this) {
+            return new TreeSet<>(indexedFolders);
+        }
+    }
+
+    boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Build the index on a Timer thread, unless it is built or already being built.
+     */
+    void ensureBuiltAsync() {
+        if (!built && !building.get())
+            Timer.get().submit(this::ensureBuilt);
+    }
+
+    /**
+     * Build the index unless it is built or another thread is building it. Does not wait for the other thread.
+     *
+     * @return true if the index is built
+     */
+    boolean ensureBuilt() {
+        if (built)
+            return true;
+        if (!building.compareAndSet(false, true))
+            return built;
+        try {
+            if (built)
+                return true;
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                changedDuringBuild = new HashSet<>();
+            }
+            Map<String, Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>>> scanned = scan();
+            synchronized (this) {
+                Set<String> changed = changedDuringBuild;
+                changedDuringBuild = null;
+                for (Map.Entry<String, Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>>> folder : scanned.entrySet()) {
+                    if (!isChanged(folder.getKey(), changed))
+                        this.index(folder.getKey(), folder.getValue());
+                }
+                built = true;
+            }
+            LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Indexed action job references of {0} folders in {1} ms",
+                    new Object[]{scanned.size(), System.currentTimeMillis() - start});
+            return true;
+        } finally {
+            building.set(false);
+        }
+    }
+
+    /**
+     * @return Referenced job names by folder full name, for the folders referencing any action job
+     */
+    private static Map<String, Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>>> scan() {
+        Map<String, Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>>> scanned = new HashMap<>();
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            for (AbstractFolder<?> folder : Jenkins.get().allItems(AbstractFolder.class)) {
+                PipelineTriggerProperty property = folder.getProperties().get(PipelineTriggerProperty.class);
+                Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> jobNames = property == null ? null : property.getReferencedJobNames();
+                if (jobNames != null && !jobNames.isEmpty())
+                    scanned.put(folder.getFullName(), jobNames);
+            }
+        }
+        return scanned;
+    }
+
+    /**
+     * @return true if the folder or one of its parents was changed by an event while the index was built
+     */
+    private static boolean isChanged(String folderFullName, Set<String> changed) {
+        for (int slash = folderFullName.length(); slash > 0; slash = folderFullName.lastIndexOf('/', slash - 1)) {
+            if (changed.contains(folderFullName.substring(0, slash)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replace the indexed references of a folder.
+     *
+     * @param folderFullName Full name of the folder
+     * @param property       PipelineTriggerProperty of the folder or null if it does not have one
+     */
+    private synchronized void index(String folderFullName, PipelineTriggerProperty property) {
+        this.index(folderFullName, property == null ? Collections.emptyMap() : property.getReferencedJobNames());
+    }
+
+    /**
+     * @param folderFullName Full name of the folder
+     * @param jobNames       Referenced job names of the folder and their event types
+     */
+    private synchronized void index(String folderFullName, Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> jobNames) {
+        this.unindex(folderFullName);
+        if (jobNames.isEmpty())
+            return;
+        referencedJobs.put(folderFullName, jobNames.keySet());
+        indexedFolders.add(folderFullName);
+        for (Map.Entry<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> jobName : jobNames.entrySet())
+            referencingFolders.computeIfAbsent(jobName.getKey(), k -> new HashMap<>()).put(folderFullName, jobName.getValue());
+    }
+
+    private synchronized void unindex(String folderFullName) {
+        if (changedDuringBuild != null)
+            changedDuringBuild.add(folderFullName);
+        Set<String> jobNames = referencedJobs.remove(folderFullName);
+        if (jobNames == null)
+            return;
+        indexedFolders.remove(folderFullName);
+        for (String jobName : jobNames) {
+            Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> folders = referencingFolders.get(jobName);
+            if (folders != null) {
+                folders.remove(folderFullName);
+                if (folders.isEmpty())
+                    referencingFolders.remove(jobName);
+            }
+        }
+    }
+
+    private synchronized void unindexWithChildren(String fullName) {
+        this.unindex(fullName);
+        String prefix = fullName + "/";
+        for (String child : new ArrayList<>(indexedFolders.subSet(prefix, prefix + Character.MAX_VALUE)))
+            this.unindex(child);
+    }
+
+    /**
+     * Also applied before the index is built or while it is being built, so changes made during a build are not lost.
+     * A running build does not overwrite the folder with its older scan.
+     */
+    private void reindex(AbstractFolder<?> folder) {
+        this.index(folder.getFullName(), folder.getProperties().get(PipelineTriggerProperty.class));
+    }
+
+    /**
+     * Rewrite the references of the folders which reference the moved Job, and of the default trigger rules, and save them.
+     *
+     * @param oldFullName Full name of the Job before it was moved
+     * @param newFullName Full name of the Job after it was moved
+     */
+    private void relocate(String oldFullName, String newFullName) {
+        this.relocateDefaultRules(oldFullName, newFullName);
+        Set<String> folderNames = this.getReferencingFolders(oldFullName);
+        if (folderNames.isEmpty())
+            return;
+        List<AbstractFolder<?>> relocated = new ArrayList<>();
+        List<PipelineTriggerProperty> properties = new ArrayList<>();
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            // An organization folder shares its property object with its projects, so the first relocation changes
+            // the property of all of them. Collect every referencing folder before changing anything.
+            for (String folderName : folderNames) {
+                AbstractFolder<?> folder = Jenkins.get().getItemByFullName(folderName, AbstractFolder.class);
+                PipelineTriggerProperty property = folder == null ? null : folder.getProperties().get(PipelineTriggerProperty.class);
+                if (property != null && property.getReferencedJobNames().containsKey(oldFullName)) {
+                    relocated.add(folder);
+                    properties.add(property);
+                }
+            }
+            for (PipelineTriggerProperty property : properties)
+                property.relocateActionJob(oldFullName, newFullName);
+            for (AbstractFolder<?> folder : relocated) {
+                try {
+                    folder.save();
+                    LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] Action job {0} moved to {1}, updated {2}",
+                            new Object[]{oldFullName, newFullName, folder.getFullName()});
+                } catch (IOException ex) {
+                    LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not save " + folder.getFullName() +
+                            " after action job " + oldFullName + " moved to " + newFullName, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Default trigger rules are not part of the index, there are few of them so they are always checked.
+     */
+    private void relocateDefaultRules(String oldFullName, String newFullName) {
+        PipelineTriggerGlobalConfiguration configuration = PipelineTriggerGlobalConfiguration.get();
+        if (configuration == null)
+            return;
+        boolean relocated = false;
+        for (DefaultTriggerRule rule : configuration.getRules()) {
+            if (rule.getProperty() != null && rule.getProperty().relocateActionJob(oldFullName, newFullName))
+                relocated = true;
+        }
+        if (relocated) {
+            configuration.save();
+            LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] Action job {0} moved to {1}, updated default trigger rules",
+                    new Object[]{oldFullName, newFullName});
+        }
+    }
+
+    @Override
+    public void onCreated(Item item) {
+        if (item instanceof AbstractFolder)
+            this.reindex((AbstractFolder<?>) item);
+    }
+
+    @Override
+    public void onDeleted(Item item) {
+        if (item instanceof ItemGroup)
+            this.unindexWithChildren(item.getFullName());
+    }
+
+    /**
+     * Called for the moved Item and for each of its descendants, so Jobs in a moved folder are relocated as well.
+     */
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        if (item instanceof AbstractFolder) {
+            this.unindex(oldFullName);
+            this.reindex((AbstractFolder<?>) item);
+        }
+        if (item instanceof Job)
+            this.relocate(oldFullName, newFullName);
+    }
+
+    /**
+     * Keeps the index up to date when a folder is saved, whether from the configuration page, the CLI or a script.
+     */
+    @Extension
+    public static class SaveableListenerImpl extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof AbstractFolder)
+                ActionJobReferenceIndex.get().reindex((AbstractFolder<?>) o);
+        }
+    }
+}
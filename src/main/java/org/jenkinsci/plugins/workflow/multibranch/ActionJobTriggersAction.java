@@ -0,0 +1,168 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Api;
+import hudson.model.Job;
+import jenkins.branch.MultiBranchProject;
+import jenkins.model.Jenkins;
+import jenkins.model.TransientActionFactory;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lists the folders whose PipelineTriggerProperty triggers a Job, by event type, with the expected fan-out
+ * of an indexing run. Available on the Job page and as REST endpoint at {@code job/<name>/actionTriggers/api/json}.
+ * Only folders visible to the current user are listed.
+ */
+@ExportedBean
+public class ActionJobTriggersAction implements Action {
+
+    private final Job<?, ?> job;
+    private transient List<Trigger> triggers;
+
+    public ActionJobTriggersAction(Job<?, ?> job) {
+        this.job = job;
+    }
+
+    public Job<?, ?> getJob() {
+        return job;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "symbol-folder";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Triggering Pipelines";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "actionTriggers";
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    /**
+     * The action is created per request, so the triggers are computed once per request.
+     *
+     * @return Folders triggering the Job, one entry per folder and event type
+     */
+    @Exported(inline = true)
+    public synchronized List<Trigger> getTriggers() {
+        if (triggers == null)
+            triggers = Collections.unmodifiableList(this.computeTriggers());
+        return triggers;
+    }
+
+    private List<Trigger> computeTriggers() {
+        List<Trigger> triggers = new ArrayList<>();
+        Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> references = ActionJobReferenceIndex.get().getReferences(job.getFullName());
+        for (Map.Entry<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> reference : references.entrySet()) {
+            AbstractFolder<?> folder = Jenkins.get().getItemByFullName(reference.getKey(), AbstractFolder.class);
+            PipelineTriggerProperty property = folder == null ? null : folder.getProperties().get(PipelineTriggerProperty.class);
+            if (property == null)
+                continue;
+            for (PipelineTriggerProperty.PipelineTriggerBuildAction action : reference.getValue()) {
+                int estimatedFanOut = folder instanceof MultiBranchProject
+                        ? property.estimateFanOut((MultiBranchProject<?, ?>) folder, job.getFullName(), action)
+                        : 0;
+                triggers.add(new Trigger(folder, action, estimatedFanOut));
+            }
+        }
+        return triggers;
+    }
+
+    /**
+     * @return Sum of the expected fan-out of all triggers
+     */
+    @Exported
+    public int getEstimatedFanOut() {
+        int estimatedFanOut = 0;
+        for (Trigger trigger : this.getTriggers())
+            estimatedFanOut += trigger.getEstimatedFanOut();
+        return estimatedFanOut;
+    }
+
+    /**
+     * A folder triggering the Job for an event type.
+     */
+    @ExportedBean(defaultVisibility = 2)
+    public static class Trigger {
+        private final AbstractFolder<?> folder;
+        private final PipelineTriggerProperty.PipelineTriggerBuildAction action;
+        private final int estimatedFanOut;
+
+        Trigger(AbstractFolder<?> folder, PipelineTriggerProperty.PipelineTriggerBuildAction action, int estimatedFanOut) {
+            this.folder = folder;
+            this.action = action;
+            this.estimatedFanOut = estimatedFanOut;
+        }
+
+        public AbstractFolder<?> getFolder() {
+            return folder;
+        }
+
+        @Exported
+        public String getFolderFullName() {
+            return folder.getFullName();
+        }
+
+        @Exported
+        public String getEvent() {
+            return action.name();
+        }
+
+        public String getEventDisplayName() {
+            return action.getDisplayName();
+        }
+
+        /**
+         * @return Number of branches of the folder which would trigger the Job if all of them fired the event once.
+         * 0 for organization folders, their projects are listed on their own.
+         */
+        @Exported
+        public int getEstimatedFanOut() {
+            return estimatedFanOut;
+        }
+    }
+
+    @Extension
+    public static class Factory extends TransientActionFactory<Job> {
+
+        @Override
+        public Class<Job> type() {
+            return Job.class;
+        }
+
+        /**
+         * Never builds the index on the request thread, the action is missing until the index is built in the background.
+         */
+        @Nonnull
+        @Override
+        public Collection<? extends Action> createFor(@Nonnull Job target) {
+            ActionJobReferenceIndex index = ActionJobReferenceIndex.get();
+            if (!index.isBuilt()) {
+                index.ensureBuiltAsync();
+                return Collections.emptyList();
+            }
+            if (index.getReferencingFolders(target.getFullName()).isEmpty())
+                return Collections.emptyList();
+            return Collections.singletonList(new ActionJobTriggersAction(target));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.AbstractProject;
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.Label;
+import hudson.model.LoadStatistics;
+import hudson.model.PeriodicWork;
+import hudson.model.queue.QueueTaskFuture;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schedules action job builds according to the free capacity of the label they run on, for properties with
+ * {@link PipelineTriggerProperty#isAdaptiveScheduling()} set.
+ * A label is saturated when its buildable queue items reach its idle executors plus {@code .adaptiveQueueSlack}
+ * (default 10). Builds of saturated labels are held in a pending buffer and released in order every
+ * {@code .adaptiveIntervalSeconds} (default 5) seconds, as many as the label has capacity for.
+ * Pipeline jobs have no assigned label, the load of the whole instance is used for them.
+ * The buffer holds at most {@code .adaptiveBufferSize} (default 10000) builds; beyond that builds are scheduled
+ * immediately. The buffer is not persisted, held builds are lost on restart.
+ */
+@Extension
+public class AdaptiveScheduler extends PeriodicWork {
+
+    private static final Logger LOGGER = Logger.getLogger(AdaptiveScheduler.class.getName());
+    private static final long INTERVAL_SECONDS = SystemProperties.getLong(PipelineTriggerProperty.class.getName() + ".adaptiveIntervalSeconds", 5L);
+    private static final int BUFFER_SIZE = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".adaptiveBufferSize", 10000);
+    @SuppressFBWarnings(value = "MS_SHOULD_BE_FINAL", justification = "Adjustable from the script console and tests")
+    static int queueSlack = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".adaptiveQueueSlack", 10);
+
+    private final Deque<PendingBuild> pending = new ArrayDeque<>();
+    private final Map<Label, Integer> heldPerLabel = new HashMap<>();
+
+    public static AdaptiveScheduler get() {
+        return ExtensionList.lookupSingleton(AdaptiveScheduler.class);
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return TimeUnit.SECONDS.toMillis(INTERVAL_SECONDS);
+    }
+
+    /**
+     * Schedule a build now, without looking at the load.
+     *
+     * @param job         Action job
+     * @param quietPeriod Quiet period of the build
+     * @param actions     Actions of the build
+     */
+    static void scheduleNow(Job<?, ?> job, int quietPeriod, Action... actions) {
+        QueueTaskFuture<?> future = null;
+        if (job instanceof AbstractProject)
+            future = ((AbstractProject<?, ?>) job).scheduleBuild2(quietPeriod, actions);
+        else if (job instanceof WorkflowJob)
+            future = ((WorkflowJob) job).scheduleBuild2(quietPeriod, actions);
+        // An item entering the queue is recorded synchronously by TriggerOutcomeStore.QueueListenerImpl
+        TriggerOutcome.Status status = future == null ? TriggerOutcome.Status.REFUSED : TriggerOutcome.Status.MERGED;
+        TriggerOutcomeStore.update(actions, outcome -> {
+            if (outcome.getStatus() == TriggerOutcome.Status.TRIGGERED || outcome.getStatus() == TriggerOutcome.Status.HELD)
+                outcome.setStatus(status);
+        });
+    }
+
+    /**
+     * Schedule a build if the label of @job has capacity and no older build of the label is held, otherwise hold it.
+     *
+     * @param job         Action job
+     * @param quietPeriod Quiet period of the build
+     * @param actions     Actions of the build
+     */
+    void schedule(Job<?, ?> job, int quietPeriod, Action... actions) {
+        Label label = getLabel(job);
+        synchronized (this) {
+            if (pending.size() >= BUFFER_SIZE) {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Pending buffer full, scheduling {0} immediately", job.getFullName());
+            } else if (this.isHolding(label) || getCapacity(label) <= 0) {
+                pending.addLast(new PendingBuild(job.getFullName(), label, quietPeriod, actions));
+                heldPerLabel.merge(label, 1, Integer::sum);
+                TriggerOutcomeStore.update(actions, outcome -> outcome.setStatus(TriggerOutcome.Status.HELD));
+                LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] {0} held, {1} saturated",
+                        new Object[]{job.getFullName(), label == null ? "instance" : label.getName()});
+                return;
+            }
+        }
+        scheduleNow(job, quietPeriod, actions);
+    }
+
+    private boolean isHolding(Label label) {
+        return heldPerLabel.containsKey(label);
+    }
+
+    /**
+     * Count a build removed from @pending.
+     */
+    private void unhold(PendingBuild build) {
+        heldPerLabel.computeIfPresent(build.label, (label, held) -> held > 1 ? held - 1 : null);
+    }
+
+    /**
+     * Drop the held builds of a branch event.
+     *
+     * @param branchFullName Full name of the branch Pipeline job
+     * @param event          Event type of the builds
+     * @return Number of dropped builds
+     */
+    synchronized int cancel(String branchFullName, PipelineTriggerProperty.PipelineTriggerBuildAction event) {
+        int cancelled = 0;
+        for (Iterator<PendingBuild> iterator = pending.iterator(); iterator.hasNext(); ) {
+            PendingBuild build = iterator.next();
+            Action[] actions = build.actions;
+            for (Action action : actions) {
+                if (action instanceof BranchEventAction && ((BranchEventAction) action).getEvent() == event
+                        && ((BranchEventAction) action).getBranchFullName().equals(branchFullName)) {
+                    iterator.remove();
+                    this.unhold(build);
+                    TriggerOutcomeStore.update(actions, outcome -> outcome.setStatus(TriggerOutcome.Status.CANCELLED));
+                    cancelled++;
+                    break;
+                }
+            }
+        }
+        return cancelled;
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @param label Label of the action job, or null for the whole instance
+     * @return Number of builds which can be added before the label is saturated
+     */
+    private static int getCapacity(Label label) {
+        LoadStatistics statistics = label == null ? Jenkins.get().overallLoad : label.loadStatistics;
+        return statistics.computeIdleExecutors() + queueSlack - statistics.computeQueueLength();
+    }
+
+    private static Label getLabel(Job<?, ?> job) {
+        return job instanceof AbstractProject ? ((AbstractProject<?, ?>) job).getAssignedLabel() : null;
+    }
+
+    @Override
+    protected void doRun() {
+        this.release();
+    }
+
+    /**
+     * Release held builds in order, as many per label as the label has capacity for.
+     */
+    void release() {
+        Map<Label, Integer> capacities = new HashMap<>();
+        Map<PendingBuild, Job<?, ?>> released = new LinkedHashMap<>();
+        List<PendingBuild> dropped = new ArrayList<>();
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            synchronized (this) {
+                for (Iterator<PendingBuild> iterator = pending.iterator(); iterator.hasNext(); ) {
+                    PendingBuild build = iterator.next();
+                    int capacity = capacities.computeIfAbsent(build.label, AdaptiveScheduler::getCapacity);
+                    if (capacity <= 0)
+                        continue;
+                    iterator.remove();
+                    this.unhold(build);
+                    Job<?, ?> job = Jenkins.get().getItemByFullName(build.jobFullName, Job.class);
+                    if (job == null) {
+                        dropped.add(build);
+                        continue;
+                    }
+                    capacities.put(build.label, capacity - 1);
+                    released.put(build, job);
+                }
+            }
+            for (Map.Entry<PendingBuild, Job<?, ?>> build : released.entrySet())
+                scheduleNow(build.getValue(), build.getKey().quietPeriod, build.getKey().actions);
+        }
+        // The action job was deleted while its build was held
+        for (PendingBuild build : dropped) {
+            LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Dropped held build of deleted job {0}", build.jobFullName);
+            TriggerOutcomeStore.update(build.actions, outcome -> outcome.setStatus(TriggerOutcome.Status.REFUSED));
+        }
+        if (!released.isEmpty())
+            LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Released {0} held build(s), {1} still held",
+                    new Object[]{released.size(), this.getPendingCount()});
+    }
+
+    private static final class PendingBuild {
+        private final String jobFullName;
+        private final Label label;
+        private final int quietPeriod;
+        private final Action[] actions;
+
+        PendingBuild(String jobFullName, Label label, int quietPeriod, Action[] actions) {
+            this.jobFullName = jobFullName;
+            this.label = label;
+            this.quietPeriod = quietPeriod;
+            this.actions = actions;
+        }
+    }
+}
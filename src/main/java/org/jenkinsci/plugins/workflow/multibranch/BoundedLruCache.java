@@ -0,0 +1,48 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread safe LRU cache with a fixed number of entries.
+ * Values are computed outside the lock, so a slow computation does not block readers of other keys.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+final class BoundedLruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    BoundedLruCache(final int maxSize) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = this.get(key);
+        if (value == null) {
+            value = mappingFunction.apply(key);
+            if (value != null)
+                this.put(key, value);
+        }
+        return value;
+    }
+}
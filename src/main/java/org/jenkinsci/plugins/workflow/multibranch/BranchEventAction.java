@@ -0,0 +1,62 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.InvisibleAction;
+
+/**
+ * Marks a queue item or build of an action job with the branch event which triggered it.
+ */
+public class BranchEventAction extends InvisibleAction {
+
+    private final String branchFullName;
+    private final PipelineTriggerProperty.PipelineTriggerBuildAction event;
+    private final long outcomeId;
+    private final long eventTime;
+
+    /**
+     * @param branchFullName Full name of the branch Pipeline job of the event
+     * @param event          Event type
+     */
+    public BranchEventAction(String branchFullName, PipelineTriggerProperty.PipelineTriggerBuildAction event) {
+        this(branchFullName, event, 0, 0);
+    }
+
+    /**
+     * @param branchFullName Full name of the branch Pipeline job of the event
+     * @param event          Event type
+     * @param outcomeId      Id of the TriggerOutcome recorded for the build, 0 if none was recorded
+     * @param eventTime      Time of the branch event, in milliseconds since the epoch, 0 if unknown
+     */
+    public BranchEventAction(String branchFullName, PipelineTriggerProperty.PipelineTriggerBuildAction event, long outcomeId, long eventTime) {
+        this.branchFullName = branchFullName;
+        this.event = event;
+        this.outcomeId = outcomeId;
+        this.eventTime = eventTime;
+    }
+
+    public String getBranchFullName() {
+        return branchFullName;
+    }
+
+    public PipelineTriggerProperty.PipelineTriggerBuildAction getEvent() {
+        return event;
+    }
+
+    public long getOutcomeId() {
+        return outcomeId;
+    }
+
+    /**
+     * @return Time of the branch event, in milliseconds since the epoch, 0 if unknown
+     */
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    /**
+     * @return Full name of the multibranch project of the branch
+     */
+    public String getFolderFullName() {
+        int slash = branchFullName.lastIndexOf('/');
+        return slash < 0 ? "" : branchFullName.substring(0, slash);
+    }
+}
@@ -0,0 +1,183 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.ParameterValue;
+import hudson.model.ParametersAction;
+import hudson.model.Run;
+import hudson.model.StringParameterValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable information about a branch (Pipeline) event.
+ * It is computed once per branch event and reused for every action job and every Run of the branch,
+ * so the Pull Request lookup, the filter checks and the constant parameter values are not repeated.
+ */
+public final class BranchEventContext {
+
+    /**
+     * Result of the Include and Exclude Filters for a branch.
+     */
+    public enum FilterVerdict {
+        INCLUDED, EXCLUDED, NOT_INCLUDED
+    }
+
+    private final String projectName;
+    private final String projectFullName;
+    private final String sourceBranchName;
+    private final String targetBranchName;
+    private final BranchFilter.Subject subject;
+    private final FilterVerdict filterVerdict;
+    private final List<ParameterValue> branchParameterValues;
+    private final long eventTime;
+
+    /**
+     * @param projectName          Name of the project. This will be branch name which is found in branch indexing.
+     * @param projectFullName      Full name of the project.
+     * @param pullRequestInfo      Source and target branch names of the project
+     * @param subject              Branch as seen by filters and conditions
+     * @param filterVerdict        Result of the Include and Exclude Filters for @subject
+     * @param additionalParameters Additional Parameters defined in the property
+     * @param eventTime            Time of the branch event, in milliseconds since the epoch
+     */
+    BranchEventContext(String projectName, String projectFullName, PullRequestInfo pullRequestInfo,
+                       BranchFilter.Subject subject, FilterVerdict filterVerdict, List<AdditionalParameter> additionalParameters,
+                       long eventTime) {
+        this.projectName = projectName;
+        this.projectFullName = projectFullName;
+        this.sourceBranchName = pullRequestInfo.getSourceBranchName();
+        this.targetBranchName = pullRequestInfo.getTargetBranchName();
+        this.subject = subject;
+        this.filterVerdict = filterVerdict;
+        List<ParameterValue> parameterValues = new ArrayList<>();
+        parameterValues.add(stringParameterValue(PipelineTriggerProperty.projectNameParameterKey, projectName));
+        parameterValues.add(stringParameterValue(PipelineTriggerProperty.projectFullNameParameterKey, projectFullName));
+        parameterValues.add(stringParameterValue(PipelineTriggerProperty.sourceBranchName, this.sourceBranchName));
+        parameterValues.add(stringParameterValue(PipelineTriggerProperty.targetBranchName, this.targetBranchName));
+        if (additionalParameters != null) {
+            for (AdditionalParameter additionalParameter : additionalParameters) {
+                parameterValues.add(stringParameterValue(additionalParameter.getName(), additionalParameter.getValue()));
+            }
+        }
+        this.branchParameterValues = Collections.unmodifiableList(parameterValues);
+        this.eventTime = eventTime;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public String getProjectFullName() {
+        return projectFullName;
+    }
+
+    /**
+     * @return Time of the branch event, in milliseconds since the epoch
+     */
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    public String getSourceBranchName() {
+        return sourceBranchName;
+    }
+
+    public String getTargetBranchName() {
+        return targetBranchName;
+    }
+
+    BranchFilter.Subject getSubject() {
+        return subject;
+    }
+
+    public FilterVerdict getFilterVerdict() {
+        return filterVerdict;
+    }
+
+    public boolean isIncluded() {
+        return filterVerdict == FilterVerdict.INCLUDED;
+    }
+
+    /**
+     * @return Parameter values which are the same for every event of this branch
+     */
+    public List<ParameterValue> getBranchParameterValues() {
+        return branchParameterValues;
+    }
+
+    /**
+     * @return ParametersAction for a branch level (create or delete) event
+     */
+    public ParametersAction toParametersAction() {
+        return this.toParametersAction(null, Collections.emptyList());
+    }
+
+    /**
+     * @param run Deleted Run
+     * @return ParametersAction for a Run level event
+     */
+    public ParametersAction toParametersAction(Run<?, ?> run) {
+        return this.toParametersAction(run, Collections.emptyList());
+    }
+
+    /**
+     * Only the Run and Job specific values are created here, branch level values are reused.
+     * Job specific parameters replace branch level values with the same name.
+     *
+     * @param run           Deleted Run, or null for a branch level event
+     * @param jobParameters Parameters defined for a single action job
+     * @return ParametersAction
+     */
+    public ParametersAction toParametersAction(Run<?, ?> run, List<AdditionalParameter> jobParameters) {
+        return new ParametersAction(this.toParameterValues(run, jobParameters));
+    }
+
+    /**
+     * Same values as {@link #toParametersAction(Run, List)}, as environment variables for the no-definition mode.
+     *
+     * @param run           Deleted Run, or null for a branch level event
+     * @param jobParameters Parameters defined for a single action job
+     * @return BranchEventEnvironmentAction
+     */
+    public BranchEventEnvironmentAction toEnvironmentAction(Run<?, ?> run, List<AdditionalParameter> jobParameters) {
+        return new BranchEventEnvironmentAction(this.toValueMap(run, jobParameters));
+    }
+
+    /**
+     * Same values as {@link #toParametersAction(Run, List)}, as plain values by name.
+     *
+     * @param run           Deleted Run, or null for a branch level event
+     * @param jobParameters Parameters defined for a single action job or handler
+     * @return Values by name, in parameter order
+     */
+    public Map<String, String> toValueMap(Run<?, ?> run, List<AdditionalParameter> jobParameters) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (ParameterValue parameterValue : this.toParameterValues(run, jobParameters))
+            values.put(parameterValue.getName(), ((StringParameterValue) parameterValue).getValue());
+        return values;
+    }
+
+    private List<ParameterValue> toParameterValues(Run<?, ?> run, List<AdditionalParameter> jobParameters) {
+        if (run == null && jobParameters.isEmpty())
+            return new ArrayList<>(this.branchParameterValues);
+        Map<String, ParameterValue> parameterValues = new LinkedHashMap<>();
+        for (ParameterValue parameterValue : this.branchParameterValues)
+            parameterValues.put(parameterValue.getName(), parameterValue);
+        if (run != null) {
+            parameterValues.put(PipelineTriggerProperty.runNumberParameterKey,
+                    stringParameterValue(PipelineTriggerProperty.runNumberParameterKey, Integer.toString(run.getNumber())));
+            parameterValues.put(PipelineTriggerProperty.runDisplayNameParameterKey,
+                    stringParameterValue(PipelineTriggerProperty.runDisplayNameParameterKey, run.getDisplayName()));
+        }
+        for (AdditionalParameter jobParameter : jobParameters)
+            parameterValues.put(jobParameter.getName(), stringParameterValue(jobParameter.getName(), jobParameter.getValue()));
+        return new ArrayList<>(parameterValues.values());
+    }
+
+    private static StringParameterValue stringParameterValue(String name, String value) {
+        return new StringParameterValue(name, value, "Set by MultiBranch Pipeline Plugin");
+    }
+}
@@ -0,0 +1,52 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.EnvVars;
+import hudson.model.Action;
+import hudson.model.EnvironmentContributingAction;
+import hudson.model.InvisibleAction;
+import hudson.model.Queue;
+import hudson.model.Run;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source context of a branch event, attached to the queued build of an action job in no-definition mode.
+ * The values are exposed to the build as environment variables, so the action job does not need
+ * parameter definitions for them and its configuration is never changed.
+ */
+public class BranchEventEnvironmentAction extends InvisibleAction implements EnvironmentContributingAction, Queue.QueueAction {
+
+    private final Map<String, String> environment;
+
+    /**
+     * @param environment Environment variables by name
+     */
+    public BranchEventEnvironmentAction(Map<String, String> environment) {
+        this.environment = Collections.unmodifiableMap(new LinkedHashMap<>(environment));
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    @Override
+    public void buildEnvironment(@Nonnull Run<?, ?> run, @Nonnull EnvVars env) {
+        env.putAll(environment);
+    }
+
+    /**
+     * Like ParametersAction, an item of the same Job with the same values is not scheduled twice.
+     */
+    @Override
+    public boolean shouldSchedule(List<Action> actions) {
+        for (Action action : actions) {
+            if (action instanceof BranchEventEnvironmentAction && ((BranchEventEnvironmentAction) action).environment.equals(this.environment))
+                return false;
+        }
+        return true;
+    }
+}
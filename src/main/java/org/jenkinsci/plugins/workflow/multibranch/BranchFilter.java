@@ -0,0 +1,349 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled form of an Include or Exclude Filter.
+ * A filter is a space-separated list of clauses and matches a branch if any clause matches.
+ * A clause is one or more terms joined with {@code &} and matches if all of its terms match.
+ * Supported terms:
+ * <ul>
+ *     <li>{@code name*}: Pipeline name with * as a wildcard (the original filter syntax)</li>
+ *     <li>{@code regex:<pattern>}: Pipeline name matching a Java regular expression</li>
+ *     <li>{@code type:branch}, {@code type:pr}, {@code type:tag}: kind of the SCMHead</li>
+ *     <li>{@code origin:fork}, {@code origin:default}: whether a Pull Request comes from a fork</li>
+ *     <li>{@code target:<wildcard>}: target branch of a Pull Request</li>
+ * </ul>
+ * The filter is compiled once: all plain and wildcard name clauses end up in a single {@link GlobMatcher},
+ * so long lists of names cost the same as a short one, and the terms of every other clause are ordered from
+ * cheapest to most expensive.
+ */
+final class BranchFilter {
+
+    private static final String REGEX_PREFIX = "regex:";
+    private static final String TYPE_PREFIX = "type:";
+    private static final String ORIGIN_PREFIX = "origin:";
+    private static final String TARGET_PREFIX = "target:";
+
+    private final GlobMatcher names;
+    private final List<List<Term>> clauses;
+    private final boolean nameOnly;
+
+    private BranchFilter(GlobMatcher names, List<List<Term>> clauses, boolean nameOnly) {
+        this.names = names;
+        this.clauses = clauses;
+        this.nameOnly = nameOnly;
+    }
+
+    /**
+     * @param definitions Filter definition as entered in the field
+     * @return Compiled filter
+     * @throws IllegalArgumentException if a term is not valid
+     */
+    static BranchFilter compile(String definitions) {
+        List<String> wildcards = new ArrayList<>();
+        List<List<Term>> clauses = new ArrayList<>();
+        boolean nameOnly = true;
+        for (String clauseDefinition : Util.fixNull(definitions).trim().split("\\s+")) {
+            if (clauseDefinition.isEmpty())
+                continue;
+            List<Term> terms = new ArrayList<>();
+            for (String termDefinition : clauseDefinition.split("&")) {
+                if (!termDefinition.isEmpty())
+                    terms.add(compileTerm(termDefinition));
+            }
+            if (terms.size() == 1 && terms.get(0) instanceof NameWildcardTerm) {
+                wildcards.add(((NameWildcardTerm) terms.get(0)).wildcard);
+                continue;
+            }
+            for (Term term : terms)
+                nameOnly &= term.isNameOnly();
+            terms.sort(Comparator.comparingInt(Term::cost));
+            clauses.add(Collections.unmodifiableList(terms));
+        }
+        return new BranchFilter(GlobMatcher.compile(wildcards), clauses, nameOnly);
+    }
+
+    /**
+     * Literal prefixes a branch name must start with to match the filter, for indexing many filters by prefix.
+     *
+     * @param definitions Filter definition as entered in the field
+     * @return Literal part before the first * of every clause, or null if a clause is not a plain name clause
+     * or matches names with any prefix, i.e. the filter can not be indexed by prefix
+     */
+    static List<String> literalPrefixes(String definitions) {
+        List<String> prefixes = new ArrayList<>();
+        for (String clauseDefinition : Util.fixNull(definitions).trim().split("\\s+")) {
+            if (clauseDefinition.isEmpty())
+                continue;
+            if (clauseDefinition.indexOf('&') >= 0 || !(compileTerm(clauseDefinition) instanceof NameWildcardTerm))
+                return null;
+            int star = clauseDefinition.indexOf('*');
+            String prefix = star < 0 ? clauseDefinition : clauseDefinition.substring(0, star);
+            if (prefix.isEmpty())
+                return null;
+            prefixes.add(prefix);
+        }
+        return prefixes.isEmpty() ? null : prefixes;
+    }
+
+    private static Term compileTerm(String termDefinition) {
+        if (termDefinition.startsWith(REGEX_PREFIX)) {
+            return new NameRegexTerm(Pattern.compile(termDefinition.substring(REGEX_PREFIX.length())));
+        } else if (termDefinition.startsWith(TYPE_PREFIX)) {
+            String type = termDefinition.substring(TYPE_PREFIX.length()).toLowerCase(Locale.ENGLISH);
+            switch (type) {
+                case "branch":
+                    return new CategoryTerm(PullRequestInfo.HeadCategory.BRANCH);
+                case "pr":
+                case "mr":
+                    return new CategoryTerm(PullRequestInfo.HeadCategory.PULL_REQUEST);
+                case "tag":
+                    return new CategoryTerm(PullRequestInfo.HeadCategory.TAG);
+                default:
+                    throw new IllegalArgumentException("Unknown type '" + type + "', expected one of branch, pr, tag");
+            }
+        } else if (termDefinition.startsWith(ORIGIN_PREFIX)) {
+            String origin = termDefinition.substring(ORIGIN_PREFIX.length()).toLowerCase(Locale.ENGLISH);
+            switch (origin) {
+                case "fork":
+                    return new OriginTerm(true);
+                case "default":
+                    return new OriginTerm(false);
+                default:
+                    throw new IllegalArgumentException("Unknown origin '" + origin + "', expected one of fork, default");
+            }
+        } else if (termDefinition.startsWith(TARGET_PREFIX)) {
+            return new TargetTerm(GlobMatcher.compile(termDefinition.substring(TARGET_PREFIX.length())));
+        } else {
+            return new NameWildcardTerm(termDefinition);
+        }
+    }
+
+    /**
+     * @param subject Branch to check
+     * @return true if any clause of the filter matches the branch
+     */
+    boolean matches(Subject subject) {
+        if (names.matches(subject.getName()))
+            return true;
+        for (List<Term> clause : clauses) {
+            boolean clauseMatches = true;
+            for (Term term : clause) {
+                if (!term.test(subject)) {
+                    clauseMatches = false;
+                    break;
+                }
+            }
+            if (clauseMatches)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the result of the filter only depends on the name of the branch
+     */
+    boolean isNameOnly() {
+        return nameOnly;
+    }
+
+    /**
+     * Properties of a branch Pipeline which filters are evaluated against.
+     */
+    static final class Subject {
+        private final String name;
+        private final PullRequestInfo.HeadCategory headCategory;
+        private final String targetBranchName;
+        private final boolean fork;
+
+        Subject(String name, PullRequestInfo.HeadCategory headCategory, String targetBranchName, boolean fork) {
+            this.name = name;
+            this.headCategory = headCategory;
+            this.targetBranchName = Util.fixNull(targetBranchName);
+            this.fork = fork;
+        }
+
+        static Subject of(String name, PullRequestInfo pullRequestInfo) {
+            return new Subject(name, pullRequestInfo.getHeadCategory(), pullRequestInfo.getTargetBranchName(), pullRequestInfo.isFork());
+        }
+
+        /**
+         * @return Subject which only keeps the name, used as cache key for name only filters
+         */
+        Subject nameOnly() {
+            return new Subject(name, PullRequestInfo.HeadCategory.BRANCH, "", false);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        PullRequestInfo.HeadCategory getHeadCategory() {
+            return headCategory;
+        }
+
+        String getTargetBranchName() {
+            return targetBranchName;
+        }
+
+        boolean isFork() {
+            return fork;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Subject))
+                return false;
+            Subject subject = (Subject) o;
+            return fork == subject.fork && name.equals(subject.name) && headCategory == subject.headCategory
+                    && targetBranchName.equals(subject.targetBranchName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, headCategory, targetBranchName, fork);
+        }
+    }
+
+    private interface Term {
+        boolean test(Subject subject);
+
+        /**
+         * @return Relative cost of the test, cheaper terms are evaluated first
+         */
+        int cost();
+
+        boolean isNameOnly();
+    }
+
+    private static final class CategoryTerm implements Term {
+        private final Set<PullRequestInfo.HeadCategory> categories;
+
+        CategoryTerm(PullRequestInfo.HeadCategory category) {
+            this.categories = EnumSet.of(category);
+        }
+
+        @Override
+        public boolean test(Subject subject) {
+            return categories.contains(subject.getHeadCategory());
+        }
+
+        @Override
+        public int cost() {
+            return 0;
+        }
+
+        @Override
+        public boolean isNameOnly() {
+            return false;
+        }
+    }
+
+    private static final class OriginTerm implements Term {
+        private final boolean fork;
+
+        OriginTerm(boolean fork) {
+            this.fork = fork;
+        }
+
+        @Override
+        public boolean test(Subject subject) {
+            return subject.getHeadCategory() == PullRequestInfo.HeadCategory.PULL_REQUEST && subject.isFork() == fork;
+        }
+
+        @Override
+        public int cost() {
+            return 0;
+        }
+
+        @Override
+        public boolean isNameOnly() {
+            return false;
+        }
+    }
+
+    private static final class NameWildcardTerm implements Term {
+        private final String wildcard;
+        private final GlobMatcher matcher;
+
+        NameWildcardTerm(String wildcard) {
+            this.wildcard = wildcard;
+            this.matcher = GlobMatcher.compile(Collections.singletonList(wildcard));
+        }
+
+        @Override
+        public boolean test(Subject subject) {
+            return matcher.matches(subject.getName());
+        }
+
+        @Override
+        public int cost() {
+            return wildcard.contains("*") ? 2 : 1;
+        }
+
+        @Override
+        public boolean isNameOnly() {
+            return true;
+        }
+    }
+
+    private static final class NameRegexTerm implements Term {
+        private final Pattern pattern;
+
+        NameRegexTerm(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean test(Subject subject) {
+            return pattern.matcher(subject.getName()).matches();
+        }
+
+        @Override
+        public int cost() {
+            return 3;
+        }
+
+        @Override
+        public boolean isNameOnly() {
+            return true;
+        }
+    }
+
+    private static final class TargetTerm implements Term {
+        private final GlobMatcher matcher;
+
+        TargetTerm(GlobMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean test(Subject subject) {
+            return subject.getHeadCategory() == PullRequestInfo.HeadCategory.PULL_REQUEST
+                    && matcher.matches(subject.getTargetBranchName());
+        }
+
+        @Override
+        public int cost() {
+            return 2;
+        }
+
+        @Override
+        public boolean isNameOnly() {
+            return false;
+        }
+    }
+}
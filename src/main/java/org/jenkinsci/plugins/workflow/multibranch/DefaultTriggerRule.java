@@ -0,0 +1,67 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Default trigger configuration of the multibranch projects whose full name matches @folderPattern.
+ * The embedded PipelineTriggerProperty is shared by all of them, it is never copied into the projects.
+ */
+public class DefaultTriggerRule extends AbstractDescribableImpl<DefaultTriggerRule> {
+
+    private final String folderPattern;
+    private final PipelineTriggerProperty property;
+    private transient volatile GlobMatcher folderMatcher;
+
+    /**
+     * @param folderPattern Space separated full name patterns of the multibranch projects, * matches any characters
+     * @param property      Trigger configuration of the matching projects
+     */
+    @DataBoundConstructor
+    public DefaultTriggerRule(String folderPattern, PipelineTriggerProperty property) {
+        this.folderPattern = Util.fixNull(folderPattern).trim();
+        this.property = property;
+    }
+
+    public String getFolderPattern() {
+        return folderPattern;
+    }
+
+    public PipelineTriggerProperty getProperty() {
+        return property;
+    }
+
+    /**
+     * @param folderFullName Full name of a multibranch project
+     * @return true if the project matches @folderPattern
+     */
+    boolean matches(String folderFullName) {
+        GlobMatcher matcher = this.folderMatcher;
+        if (matcher == null)
+            this.folderMatcher = matcher = GlobMatcher.compile(folderPattern);
+        return matcher.matches(folderFullName);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<DefaultTriggerRule> {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Default Trigger Rule";
+        }
+
+        public FormValidation doCheckFolderPattern(@QueryParameter String value) {
+            if (Util.fixEmptyAndTrim(value) == null)
+                return FormValidation.warning("The rule does not match any project");
+            return FormValidation.ok();
+        }
+    }
+}
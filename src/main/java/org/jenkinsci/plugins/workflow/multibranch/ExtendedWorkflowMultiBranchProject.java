@@ -3,6 +3,7 @@ package org.jenkinsci.plugins.workflow.multibranch;
 import hudson.Extension;
 import hudson.model.Item;
 import hudson.model.Run;
+import hudson.model.TaskListener;
 import hudson.model.listeners.ItemListener;
 import hudson.model.listeners.RunListener;
 
@@ -32,5 +33,11 @@ public class ExtendedWorkflowMultiBranchProject extends WorkflowBranchProjectFac
             super.onDeleted(run);
             PipelineTriggerProperty.triggerPipelineTriggerPropertyFromParentForOnRunDelete(run);
         }
+
+        @Override
+        public void onStarted(Run run, TaskListener listener) {
+            super.onStarted(run, listener);
+            PipelineTriggerProperty.triggerPipelineTriggerPropertyFromParentForOnUpdate(run);
+        }
     }
 }
@@ -0,0 +1,192 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches a name against many * wildcard patterns at once.
+ * Patterns without a wildcard are looked up in a hash set. Patterns with wildcards are merged into a single
+ * automaton whose states are built lazily and memoized, so after warm-up a match costs one transition per character
+ * of the name, independent of the number of patterns. The number of memoized states is bounded; beyond the bound
+ * the automaton is simulated without memoizing, which is still linear in the length of the name.
+ */
+final class GlobMatcher {
+
+    private static final int MAX_CACHED_STATES = 4096;
+    private static final GlobMatcher NONE = new GlobMatcher(new HashSet<>(), new ArrayList<>());
+
+    private final Set<String> literals;
+    /** Character expected at each position, only meaningful if the position is neither a star nor accepting. */
+    private final char[] symbols;
+    private final BitSet stars = new BitSet();
+    private final BitSet accepting = new BitSet();
+    private final State initialState;
+    private final Map<StateKey, State> states = new ConcurrentHashMap<>();
+
+    private GlobMatcher(Set<String> literals, List<String> wildcards) {
+        this.literals = literals;
+        int size = 0;
+        for (String wildcard : wildcards)
+            size += wildcard.length() + 1;
+        this.symbols = new char[size];
+        int[] starts = new int[wildcards.size()];
+        int position = 0;
+        for (int i = 0; i < wildcards.size(); i++) {
+            String wildcard = wildcards.get(i);
+            starts[i] = position;
+            for (int j = 0; j < wildcard.length(); j++, position++) {
+                char c = wildcard.charAt(j);
+                if (c == '*')
+                    this.stars.set(position);
+                else
+                    this.symbols[position] = c;
+            }
+            this.accepting.set(position++);
+        }
+        this.initialState = wildcards.isEmpty() ? null : this.state(this.closure(starts, starts.length));
+    }
+
+    /**
+     * @param patterns Patterns where * matches any sequence of characters
+     * @return Matcher which matches a name if any of the patterns match the whole name
+     */
+    static GlobMatcher compile(Collection<String> patterns) {
+        if (patterns.isEmpty())
+            return NONE;
+        Set<String> literals = new HashSet<>();
+        Set<String> wildcards = new HashSet<>();
+        for (String pattern : patterns) {
+            if (pattern.indexOf('*') < 0)
+                literals.add(pattern);
+            else
+                wildcards.add(pattern.replaceAll("\\*+", "*"));
+        }
+        return new GlobMatcher(literals, new ArrayList<>(wildcards));
+    }
+
+    /**
+     * @param pattern Space-separated list of patterns, same syntax as the Include and Exclude Filters
+     * @return Matcher
+     */
+    static GlobMatcher compile(String pattern) {
+        List<String> patterns = new ArrayList<>();
+        for (String wildcard : pattern.split(" ")) {
+            if (!wildcard.isEmpty())
+                patterns.add(wildcard);
+        }
+        return compile(patterns);
+    }
+
+    boolean matches(String name) {
+        if (literals.contains(name))
+            return true;
+        State state = this.initialState;
+        if (state == null)
+            return false;
+        for (int i = 0; i < name.length(); i++) {
+            state = state.next(name.charAt(i));
+            if (state.isDead())
+                return false;
+        }
+        return state.accepting;
+    }
+
+    /**
+     * Add the positions which are reachable without consuming a character: a star may match an empty sequence.
+     */
+    private int[] closure(int[] positions, int length) {
+        BitSet result = new BitSet();
+        for (int i = 0; i < length; i++) {
+            int position = positions[i];
+            result.set(position);
+            while (this.stars.get(position)) {
+                position++;
+                result.set(position);
+            }
+        }
+        return result.stream().toArray();
+    }
+
+    private int[] step(int[] positions, char c) {
+        int[] next = new int[positions.length];
+        int length = 0;
+        for (int position : positions) {
+            if (this.accepting.get(position))
+                continue;
+            if (this.stars.get(position))
+                next[length++] = position;
+            else if (this.symbols[position] == c)
+                next[length++] = position + 1;
+        }
+        return this.closure(next, length);
+    }
+
+    private State state(int[] positions) {
+        StateKey key = new StateKey(positions);
+        State state = this.states.get(key);
+        if (state == null) {
+            state = new State(positions);
+            if (this.states.size() < MAX_CACHED_STATES) {
+                State existing = this.states.putIfAbsent(key, state);
+                if (existing != null)
+                    state = existing;
+            }
+        }
+        return state;
+    }
+
+    private final class State {
+        private final int[] positions;
+        private final boolean accepting;
+        private final Map<Character, State> transitions = new ConcurrentHashMap<>();
+
+        State(int[] positions) {
+            this.positions = positions;
+            boolean accept = false;
+            for (int position : positions)
+                accept |= GlobMatcher.this.accepting.get(position);
+            this.accepting = accept;
+        }
+
+        boolean isDead() {
+            return positions.length == 0;
+        }
+
+        State next(char c) {
+            State next = this.transitions.get(c);
+            if (next == null) {
+                next = GlobMatcher.this.state(GlobMatcher.this.step(this.positions, c));
+                if (GlobMatcher.this.states.size() < MAX_CACHED_STATES)
+                    this.transitions.put(c, next);
+            }
+            return next;
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] positions;
+        private final int hash;
+
+        StateKey(int[] positions) {
+            this.positions = positions;
+            this.hash = Arrays.hashCode(positions);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(positions, ((StateKey) o).positions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.branch.NameEncoder;
+import jenkins.model.Jenkins;
+import jenkins.scm.api.SCMEvent;
+import jenkins.scm.api.SCMEventListener;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadEvent;
+import jenkins.scm.api.SCMSource;
+import jenkins.util.SystemProperties;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Opt-in fast path triggering create and delete actions as soon as an SCMHeadEvent is accepted,
+ * for the projects whose property has {@link PipelineTriggerProperty#isTriggerOnHeadEvents()} set.
+ * Branch indexing creates or deletes the branch Pipeline job later; the ItemListener events for the same branch
+ * consume the guard entry recorded here instead of triggering the actions a second time.
+ * Create guard entries expire after {@code .headEventGuardHours} (default 24) hours, e.g. if the source ignores the head.
+ * Delete guard entries are kept until the branch Pipeline job is actually deleted, which may happen much later
+ * if the orphaned item strategy keeps dead branches, or are dropped by a later create event of the same head.
+ * The Run Delete Event is not part of the fast path, it is triggered once the Runs are actually deleted.
+ */
+@Extension
+public class HeadEventFastPath extends SCMEventListener {
+
+    private static final Logger LOGGER = Logger.getLogger(HeadEventFastPath.class.getName());
+    private static final long GUARD_TTL = TimeUnit.HOURS.toMillis(
+            SystemProperties.getLong(PipelineTriggerProperty.class.getName() + ".headEventGuardHours", 24L));
+
+    private final Map<String, Long> triggeredCreates = new ConcurrentHashMap<>();
+    private final Map<String, Long> triggeredDeletes = new ConcurrentHashMap<>();
+
+    public static HeadEventFastPath get() {
+        return ExtensionList.lookupSingleton(HeadEventFastPath.class);
+    }
+
+    /**
+     * Consume the guard entry of a branch, if the fast path already triggered @action for it.
+     *
+     * @param branchFullName Full name of the branch Pipeline job
+     * @param action         createPipelineAction or deletePipelineAction
+     * @return true if the actions were already triggered and must not be triggered again
+     */
+    public boolean consume(String branchFullName, PipelineTriggerProperty.PipelineTriggerBuildAction action) {
+        Map<String, Long> guard = this.getGuard(action);
+        if (guard.isEmpty())
+            return false;
+        Long triggeredAt = guard.remove(branchFullName);
+        return triggeredAt != null && (guard == triggeredDeletes || System.currentTimeMillis() - triggeredAt < GUARD_TTL);
+    }
+
+    private Map<String, Long> getGuard(PipelineTriggerProperty.PipelineTriggerBuildAction action) {
+        if (action == PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction)
+            return triggeredCreates;
+        else if (action == PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction)
+            return triggeredDeletes;
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Record that the fast path triggered @action for a branch.
+     *
+     * @return the recorded guard entry, null if it was already triggered for an earlier, not yet consumed, event of the same head
+     */
+    private Long guard(String branchFullName, PipelineTriggerProperty.PipelineTriggerBuildAction action) {
+        Long now = System.currentTimeMillis();
+        Map<String, Long> guard = this.getGuard(action);
+        if (guard == triggeredCreates)
+            guard.values().removeIf(triggeredAt -> now - triggeredAt >= GUARD_TTL);
+        // A create after a delete of the same head (or the other way round) starts over
+        (guard == triggeredCreates ? triggeredDeletes : triggeredCreates).remove(branchFullName);
+        return guard.putIfAbsent(branchFullName, now) == null ? now : null;
+    }
+
+    @Override
+    public void onSCMHeadEvent(SCMHeadEvent<?> event) {
+        PipelineTriggerProperty.PipelineTriggerBuildAction action;
+        if (event.getType() == SCMEvent.Type.CREATED)
+            action = PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction;
+        else if (event.getType() == SCMEvent.Type.REMOVED)
+            action = PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction;
+        else
+            return;
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            for (String folderName : ActionJobReferenceIndex.get().getIndexedFolders()) {
+                WorkflowMultiBranchProject project = Jenkins.get().getItemByFullName(folderName, WorkflowMultiBranchProject.class);
+                PipelineTriggerProperty property = project == null ? null : project.getProperties().get(PipelineTriggerProperty.class);
+                if (property == null || !property.isTriggerOnHeadEvents())
+                    continue;
+                for (SCMSource source : project.getSCMSources()) {
+                    if (!event.isMatch(source))
+                        continue;
+                    for (SCMHead head : event.heads(source).keySet())
+                        this.trigger(project, property, head, action, event.getTimestamp());
+                }
+            }
+        }
+    }
+
+    private void trigger(WorkflowMultiBranchProject project, PipelineTriggerProperty property, SCMHead head,
+                         PipelineTriggerProperty.PipelineTriggerBuildAction action, long eventTime) {
+        // Same encoding as branch indexing uses for the item name, e.g. feature/x is feature%2Fx
+        String branchName = NameEncoder.encode(head.getName());
+        String branchFullName = project.getFullName() + "/" + branchName;
+        boolean created = action == PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction;
+        Long guardEntry = this.guard(branchFullName, action);
+        if (guardEntry == null)
+            return;
+        // Read after the guard entry is recorded, an ItemListener event from now on consumes it
+        WorkflowJob branchJob = project.getItem(branchName);
+        // Nothing to speed up if branch indexing was faster than the event, unless its ItemListener event already
+        // consumed the guard entry and skipped the actions: withdrawing the entry and consuming it are exclusive
+        if (created == (branchJob != null) && this.getGuard(action).remove(branchFullName, guardEntry))
+            return;
+        LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] {0} triggered for {1} by an SCMHeadEvent",
+                new Object[]{action.getDisplayName(), branchFullName});
+        if (branchJob != null)
+            property.triggerActionJobs(property.createBranchEventContext(branchName, branchFullName, property.getPullRequestInfo(branchJob), eventTime),
+                    Collections.emptyList(), action);
+        else
+            property.triggerActionJobs(property.createBranchEventContext(branchName, branchFullName, PipelineTriggerProperty.getPullRequestInfo(head), eventTime),
+                    Collections.emptyList(), action);
+    }
+}
@@ -0,0 +1,73 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Run;
+import hudson.model.listeners.ItemListener;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMRevisionAction;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last seen head revision per branch Pipeline job, used to drop repeated or equal update events cheaply.
+ * Only the last revision is kept, so a build of an older revision, e.g. after a force push, counts as a change.
+ * Entries are seeded from the previous build of a branch the first time it is seen after a restart,
+ * and removed when the branch job is deleted or moved.
+ */
+@Extension
+public class HeadRevisionTracker extends ItemListener {
+
+    private final Map<String, SCMRevision> lastSeenRevisions = new ConcurrentHashMap<>();
+
+    public static HeadRevisionTracker get() {
+        return ExtensionList.lookupSingleton(HeadRevisionTracker.class);
+    }
+
+    /**
+     * Record @revision as the last seen revision of a branch.
+     *
+     * @param branchFullName Full name of the branch Pipeline job
+     * @param revision       Head revision of a started build
+     * @param build          Started build. Its previous build is only loaded if the branch was not seen before
+     * @return true if the revision differs from the last seen one. False for the first build of a branch,
+     * which is covered by the create event.
+     */
+    public boolean advance(String branchFullName, SCMRevision revision, Run<?, ?> build) {
+        // Loading the previous build may read from disk, so it must not happen inside compute
+        SCMRevision seed = lastSeenRevisions.containsKey(branchFullName) ? null : getRevision(build.getPreviousBuild());
+        boolean[] changed = new boolean[1];
+        lastSeenRevisions.compute(branchFullName, (name, lastSeen) -> {
+            SCMRevision previous = lastSeen == null ? seed : lastSeen;
+            changed[0] = previous != null && !previous.equals(revision);
+            return revision;
+        });
+        return changed[0];
+    }
+
+    private static SCMRevision getRevision(Run<?, ?> build) {
+        SCMRevisionAction action = build == null ? null : build.getAction(SCMRevisionAction.class);
+        return action == null ? null : action.getRevision();
+    }
+
+    @Override
+    public void onDeleted(Item item) {
+        this.forget(item.getFullName(), item instanceof ItemGroup);
+    }
+
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        this.forget(oldFullName, item instanceof ItemGroup);
+    }
+
+    private void forget(String fullName, boolean withChildren) {
+        lastSeenRevisions.remove(fullName);
+        if (withChildren) {
+            String prefix = fullName + "/";
+            lastSeenRevisions.keySet().removeIf(name -> name.startsWith(prefix));
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Job;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of the full names of all Jobs, used by the action job fields so that they do not have to load
+ * and scan every Job on each keystroke.
+ * The index contains a sorted set of full names for prefix lookups and a trigram index for substring lookups.
+ * It is built on first use and then maintained incrementally from Item events. Entries are plain names,
+ * callers resolve and permission check only the names they actually return.
+ * The build collects the names without holding the lock and publishes them at the end, skipping the names removed
+ * by events meanwhile. Callers arriving while another thread builds the index look the Jobs up directly instead of waiting.
+ */
+@Extension
+public class JobNameIndex extends ItemListener {
+
+    private static final Logger LOGGER = Logger.getLogger(JobNameIndex.class.getName());
+    private static final int GRAM_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeSet<String> sortedNames = new TreeSet<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, IdList> grams = new HashMap<>();
+    private int removedIds;
+    private volatile boolean built;
+    private final AtomicBoolean building = new AtomicBoolean();
+    private Set<String> removedDuringBuild;
+
+    public static JobNameIndex get() {
+        return ExtensionList.lookupSingleton(JobNameIndex.class);
+    }
+
+    /**
+     * @param fullName Full name of a Job
+     * @return true if a Job with this full name exists
+     */
+    public boolean contains(String fullName) {
+        if (!this.ensureBuilt()) {
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                return Jenkins.get().getItemByFullName(fullName, Job.class) != null;
+            }
+        }
+        lock.readLock().lock();
+        try {
+            return ids.containsKey(fullName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find full names containing @value. Names starting with @value are returned first.
+     *
+     * @param value  Value to search in Job full names
+     * @param limit  Maximum number of names to return
+     * @param filter Checked only for names which contain @value, until @limit names are accepted
+     * @return Matching full names
+     */
+    public List<String> search(String value, int limit, Predicate<String> filter) {
+        if (!this.ensureBuilt())
+            return searchUnindexed(value, limit, filter);
+        Set<String> result = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            for (String name : sortedNames.tailSet(value, true)) {
+                if (result.size() >= limit || !name.startsWith(value))
+                    break;
+                if (filter.test(name))
+                    result.add(name);
+            }
+            if (value.length() < GRAM_LENGTH) {
+                for (String name : sortedNames) {
+                    if (result.size() >= limit)
+                        break;
+                    if (!result.contains(name) && name.contains(value) && filter.test(name))
+                        result.add(name);
+                }
+            } else {
+                IdList candidates = this.smallestPostingList(value);
+                for (int i = 0; candidates != null && i < candidates.size && result.size() < limit; i++) {
+                    String name = names.get(candidates.ids[i]);
+                    if (name != null && !result.contains(name) && name.contains(value) && filter.test(name))
+                        result.add(name);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(result);
+    }
+
+    private IdList smallestPostingList(String value) {
+        IdList smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            IdList list = grams.get(value.substring(i, i + GRAM_LENGTH));
+            if (list == null)
+                return null;
+            if (smallest == null || list.size < smallest.size)
+                smallest = list;
+        }
+        return smallest;
+    }
+
+    /**
+     * Scan all Jobs, until the index is built. Names starting with @value are not returned first.
+     */
+    private static List<String> searchUnindexed(String value, int limit, Predicate<String> filter) {
+        List<String> candidates = new ArrayList<>();
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            for (Job<?, ?> job : Jenkins.get().allItems(Job.class)) {
+                if (job.getFullName().contains(value))
+                    candidates.add(job.getFullName());
+            }
+        }
+        List<String> result = new ArrayList<>();
+        for (String name : candidates) {
+            if (result.size() >= limit)
+                break;
+            if (filter.test(name))
+                result.add(name);
+        }
+        return result;
+    }
+
+    /**
+     * Build the index unless it is built or another thread is building it. Does not wait for the other thread.
+     *
+     * @return true if the index is built
+     */
+    boolean ensureBuilt() {
+        if (built)
+            return true;
+        if (!building.compareAndSet(false, true))
+            return built;
+        try {
+            if (built)
+                return true;
+            long start = System.currentTimeMillis();
+            lock.writeLock().lock();
+            try {
+                removedDuringBuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<String> fullNames = new ArrayList<>();
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                for (Job<?, ?> job : Jenkins.get().allItems(Job.class)) {
+                    fullNames.add(job.getFullName());
+                }
+            }
+            lock.writeLock().lock();
+            try {
+                Set<String> removed = removedDuringBuild;
+                removedDuringBuild = null;
+                for (String fullName : fullNames) {
+                    if (!isRemoved(fullName, removed))
+                        this.addName(fullName);
+                }
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Indexed {0} job names in {1} ms",
+                    new Object[]{fullNames.size(), System.currentTimeMillis() - start});
+            return true;
+        } finally {
+            building.set(false);
+        }
+    }
+
+    /**
+     * @return true if the Job or one of its parents was removed by an event while the index was built
+     */
+    private static boolean isRemoved(String fullName, Set<String> removed) {
+        for (int slash = fullName.length(); slash > 0; slash = fullName.lastIndexOf('/', slash - 1)) {
+            if (removed.contains(fullName.substring(0, slash)))
+                return true;
+        }
+        return false;
+    }
+
+    private void add(String fullName) {
+        lock.writeLock().lock();
+        try {
+            this.addName(fullName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(String fullName, boolean withChildren) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringBuild != null)
+                removedDuringBuild.add(fullName);
+            this.removeName(fullName);
+            if (withChildren) {
+                String prefix = fullName + "/";
+                for (String child : new ArrayList<>(sortedNames.subSet(prefix, prefix + Character.MAX_VALUE))) {
+                    this.removeName(child);
+                }
+            }
+            if (removedIds > 1024 && removedIds > ids.size() / 4)
+                this.compact();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addName(String fullName) {
+        if (ids.containsKey(fullName))
+            return;
+        int id = names.size();
+        names.add(fullName);
+        ids.put(fullName, id);
+        sortedNames.add(fullName);
+        Set<String> nameGrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= fullName.length(); i++)
+            nameGrams.add(fullName.substring(i, i + GRAM_LENGTH));
+        for (String gram : nameGrams)
+            grams.computeIfAbsent(gram, k -> new IdList()).add(id);
+    }
+
+    private void removeName(String fullName) {
+        Integer id = ids.remove(fullName);
+        if (id == null)
+            return;
+        names.set(id, null);
+        sortedNames.remove(fullName);
+        removedIds++;
+    }
+
+    /**
+     * Removed names only leave a null slot behind. Rebuild ids and posting lists once there are many of them.
+     */
+    private void compact() {
+        List<String> liveNames = new ArrayList<>(sortedNames);
+        names.clear();
+        ids.clear();
+        grams.clear();
+        sortedNames.clear();
+        removedIds = 0;
+        for (String fullName : liveNames)
+            this.addName(fullName);
+    }
+
+    @Override
+    public void onCreated(Item item) {
+        if (item instanceof Job)
+            this.add(item.getFullName());
+    }
+
+    @Override
+    public void onDeleted(Item item) {
+        if (item instanceof Job || item instanceof ItemGroup)
+            this.remove(item.getFullName(), item instanceof ItemGroup);
+    }
+
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        if (item instanceof Job) {
+            this.remove(oldFullName, false);
+            this.add(newFullName);
+        }
+    }
+
+    private static final class IdList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+}
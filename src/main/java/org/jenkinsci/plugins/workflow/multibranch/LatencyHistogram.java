@@ -0,0 +1,83 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with fixed buckets from 100 ms to 1 h, cumulative like a Prometheus histogram.
+ */
+@ExportedBean(defaultVisibility = 3)
+public final class LatencyHistogram {
+
+    private static final long[] BOUNDS_MILLIS = {100, 500, 1000, 5000, 10000, 30000, 60000, 300000, 900000, 3600000};
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MILLIS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    /**
+     * @param millis Latency, negative values (clock changes) are counted as 0
+     */
+    void record(long millis) {
+        long latency = Math.max(0, millis);
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && latency > BOUNDS_MILLIS[bucket])
+            bucket++;
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        sumMillis.addAndGet(latency);
+        maxMillis.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * @param other Histogram whose latencies are added to this one
+     */
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < buckets.length(); i++)
+            buckets.addAndGet(i, other.buckets.get(i));
+        count.addAndGet(other.count.get());
+        sumMillis.addAndGet(other.sumMillis.get());
+        maxMillis.accumulateAndGet(other.maxMillis.get(), Math::max);
+    }
+
+    @Exported
+    public long getCount() {
+        return count.get();
+    }
+
+    @Exported
+    public long getSumMillis() {
+        return sumMillis.get();
+    }
+
+    @Exported
+    public long getMaxMillis() {
+        return maxMillis.get();
+    }
+
+    /**
+     * @return Upper bounds of the buckets, the last bucket of {@link #getBucketCounts()} is unbounded
+     */
+    @Exported
+    public long[] getBucketBoundsMillis() {
+        return BOUNDS_MILLIS.clone();
+    }
+
+    /**
+     * @return Number of latencies less than or equal to each bound, and the total count last
+     */
+    @Exported
+    public long[] getBucketCounts() {
+        long[] cumulative = new long[buckets.length()];
+        long total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += buckets.get(i);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+}
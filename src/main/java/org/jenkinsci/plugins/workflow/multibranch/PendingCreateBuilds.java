@@ -0,0 +1,80 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Queue;
+import hudson.model.queue.QueueListener;
+import jenkins.model.Jenkins;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracks queue items of create action builds by the full name of the branch which triggered them,
+ * so they can be cancelled if the branch is deleted before they start.
+ * Items are added when they enter the queue and removed when they leave it, started or cancelled.
+ */
+@Extension
+public class PendingCreateBuilds extends QueueListener {
+
+    private static final Logger LOGGER = Logger.getLogger(PendingCreateBuilds.class.getName());
+
+    private final Map<String, Set<Long>> pendingItems = new ConcurrentHashMap<>();
+
+    public static PendingCreateBuilds get() {
+        return ExtensionList.lookupSingleton(PendingCreateBuilds.class);
+    }
+
+    /**
+     * Cancel create action builds of a branch which are still in the queue.
+     *
+     * @param branchFullName Full name of the branch Pipeline job
+     * @return Number of cancelled queue items
+     */
+    public int cancel(String branchFullName) {
+        Set<Long> ids = pendingItems.remove(branchFullName);
+        if (ids == null)
+            return 0;
+        Queue queue = Jenkins.get().getQueue();
+        int cancelled = 0;
+        for (Long id : ids) {
+            Queue.Item item = queue.getItem(id);
+            if (item != null && queue.cancel(item)) {
+                cancelled++;
+                LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Cancelled {0} for deleted {1}",
+                        new Object[]{item.task.getFullDisplayName(), branchFullName});
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * @param branchFullName Full name of the branch Pipeline job
+     * @return Number of create action builds of the branch in the queue
+     */
+    public int getPendingCount(String branchFullName) {
+        Set<Long> ids = pendingItems.get(branchFullName);
+        return ids == null ? 0 : ids.size();
+    }
+
+    @Override
+    public void onEnterWaiting(Queue.WaitingItem wi) {
+        BranchEventAction action = wi.getAction(BranchEventAction.class);
+        if (action != null && action.getEvent() == PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction)
+            pendingItems.computeIfAbsent(action.getBranchFullName(), k -> ConcurrentHashMap.newKeySet()).add(wi.getId());
+    }
+
+    @Override
+    public void onLeft(Queue.LeftItem li) {
+        BranchEventAction action = li.getAction(BranchEventAction.class);
+        if (action == null || action.getEvent() != PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction)
+            return;
+        pendingItems.computeIfPresent(action.getBranchFullName(), (name, ids) -> {
+            ids.remove(li.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.Run;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable branch event as passed to a PipelineTriggerHandler.
+ * Values are copied when the event is created, so handlers running later do not depend on the deleted Run or branch.
+ */
+public final class PipelineTriggerEvent {
+
+    private final PipelineTriggerProperty.PipelineTriggerBuildAction type;
+    private final String projectFullName;
+    private final BranchEventContext context;
+    private final Map<String, String> parameters;
+    private final long timestamp;
+
+    /**
+     * @param type    Event type
+     * @param context Branch event context
+     * @param run     Deleted Run, or null if the event is not a Run event
+     */
+    PipelineTriggerEvent(PipelineTriggerProperty.PipelineTriggerBuildAction type, BranchEventContext context, Run<?, ?> run) {
+        this.type = type;
+        this.projectFullName = context.getProjectFullName();
+        this.context = context;
+        this.parameters = Collections.unmodifiableMap(context.toValueMap(run, Collections.emptyList()));
+        this.timestamp = context.getEventTime();
+    }
+
+    public PipelineTriggerProperty.PipelineTriggerBuildAction getType() {
+        return type;
+    }
+
+    /**
+     * @return Full name of the branch Pipeline job
+     */
+    public String getProjectFullName() {
+        return projectFullName;
+    }
+
+    public BranchEventContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return The values an action job would receive as parameters, by name
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return Time of the branch event, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,98 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import hudson.Extension;
+import hudson.model.ParameterDefinition;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.GlobalConfiguration;
+import jenkins.util.Timer;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.CheckForNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * System level default trigger rules, evaluated when an event fires for a multibranch project
+ * without its own PipelineTriggerProperty. The first rule whose folder pattern matches the full name of the project
+ * applies. Rules are compiled once and shared by all matching projects, nothing is copied into the projects.
+ */
+@Extension
+@Symbol("pipelineTriggerDefaults")
+public class PipelineTriggerGlobalConfiguration extends GlobalConfiguration {
+
+    private List<DefaultTriggerRule> rules = new ArrayList<>();
+
+    public PipelineTriggerGlobalConfiguration() {
+        this.load();
+    }
+
+    public static PipelineTriggerGlobalConfiguration get() {
+        return GlobalConfiguration.all().getInstance(PipelineTriggerGlobalConfiguration.class);
+    }
+
+    public List<DefaultTriggerRule> getRules() {
+        return rules == null ? Collections.emptyList() : rules;
+    }
+
+    /**
+     * @param rules Default trigger rules, in order of precedence
+     */
+    @DataBoundSetter
+    public void setRules(List<DefaultTriggerRule> rules) {
+        this.rules = rules == null ? new ArrayList<>() : new ArrayList<>(rules);
+        this.save();
+        this.reconcileParameters();
+    }
+
+    /**
+     * @param folderFullName Full name of a multibranch project
+     * @return Property of the first rule matching the project, or null if no rule matches
+     */
+    @CheckForNull
+    public PipelineTriggerProperty getDefaultProperty(String folderFullName) {
+        for (DefaultTriggerRule rule : this.getRules()) {
+            if (rule.getProperty() != null && rule.matches(folderFullName))
+                return rule.getProperty();
+        }
+        return null;
+    }
+
+    /**
+     * @param desiredDefinitions Parameter definitions by action job full name, the definitions of all rules are added
+     */
+    void collectParameterDefinitions(Map<String, Map<String, ParameterDefinition>> desiredDefinitions) {
+        for (DefaultTriggerRule rule : this.getRules()) {
+            if (rule.getProperty() != null)
+                rule.getProperty().collectParameterDefinitions(desiredDefinitions);
+        }
+    }
+
+    private void reconcileParameters() {
+        Timer.get().submit(() -> {
+            try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                Map<String, Map<String, ParameterDefinition>> desiredDefinitions = new HashMap<>();
+                this.collectParameterDefinitions(desiredDefinitions);
+                ActionJobParameterReconciler.reconcileAll(desiredDefinitions);
+            }
+        });
+    }
+
+    /**
+     * @param folder Multibranch project
+     * @return Own property of @folder, or the default property of the first matching rule
+     */
+    @CheckForNull
+    static PipelineTriggerProperty getEffectiveProperty(AbstractFolder<?> folder) {
+        PipelineTriggerProperty property = folder.getProperties().get(PipelineTriggerProperty.class);
+        if (property != null)
+            return property;
+        PipelineTriggerGlobalConfiguration configuration = get();
+        return configuration == null ? null : configuration.getDefaultProperty(folder.getFullName());
+    }
+}
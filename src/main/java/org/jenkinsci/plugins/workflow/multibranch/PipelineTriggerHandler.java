@@ -0,0 +1,37 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.ExtensionPoint;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+
+/**
+ * In-process reaction to branch events, an alternative to triggering an action job for trivial reactions
+ * such as an HTTP call. Plugins contribute implementations with a Descriptor annotated with @Extension,
+ * and administrators add them to the Handlers of a PipelineTriggerProperty.
+ * Handlers run on a bounded pool with a timeout, see {@link PipelineTriggerHandlerExecutor}, so they must not block
+ * for long and should react to interruption.
+ */
+public abstract class PipelineTriggerHandler extends AbstractDescribableImpl<PipelineTriggerHandler> implements ExtensionPoint {
+
+    /**
+     * @param type Event type
+     * @return true if this handler handles events of @type. Checked before an event is created for the handler
+     */
+    public boolean isApplicable(PipelineTriggerProperty.PipelineTriggerBuildAction type) {
+        return true;
+    }
+
+    /**
+     * Handle a branch event. Called from a handler pool thread, never from the event path itself.
+     *
+     * @param event Branch event
+     * @throws Exception If the event could not be handled, it is logged
+     */
+    public abstract void handle(PipelineTriggerEvent event) throws Exception;
+
+    /**
+     * Descriptor of a PipelineTriggerHandler.
+     */
+    public abstract static class PipelineTriggerHandlerDescriptor extends Descriptor<PipelineTriggerHandler> {
+    }
+}
@@ -0,0 +1,128 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.init.Terminator;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool running PipelineTriggerHandler(s). The pool has {@code .handlerThreads} (default 4) threads and
+ * queues up to {@code .handlerQueueSize} (default 1000) events, further events are dropped with a warning instead of
+ * blocking the event path. A handler running longer than {@code .handlerTimeoutSeconds} (default 30) is interrupted,
+ * the time spent queued does not count. The pool is created on first use and shut down with the Jenkins instance.
+ */
+@Extension
+public class PipelineTriggerHandlerExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineTriggerHandlerExecutor.class.getName());
+    private static final int THREADS = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".handlerThreads", 4);
+    private static final int QUEUE_SIZE = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".handlerQueueSize", 1000);
+    private static final long TIMEOUT_SECONDS = SystemProperties.getLong(PipelineTriggerProperty.class.getName() + ".handlerTimeoutSeconds", 30L);
+
+    private ThreadPoolExecutor executor;
+
+    public static PipelineTriggerHandlerExecutor get() {
+        return ExtensionList.lookupSingleton(PipelineTriggerHandlerExecutor.class);
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_SIZE),
+                    new NamingThreadFactory(new DaemonThreadFactory(), "PipelineTriggerHandler"));
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    /**
+     * Run @handler for @event on the pool. Never blocks.
+     *
+     * @param handler Handler
+     * @param event   Branch event
+     * @return false if the event was dropped because the pool is saturated or shut down
+     */
+    boolean submit(PipelineTriggerHandler handler, PipelineTriggerEvent event) {
+        try {
+            this.getExecutor().execute(new HandlerTask(handler, event));
+            return true;
+        } catch (RejectedExecutionException ex) {
+            LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Handler pool saturated, dropped {0} of {1}",
+                    new Object[]{event.getType().getDisplayName(), event.getProjectFullName()});
+            return false;
+        }
+    }
+
+    private synchronized void shutdown() {
+        if (executor == null)
+            return;
+        for (Runnable task : executor.shutdownNow()) {
+            if (task instanceof HandlerTask)
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] {0} cancelled before it started for {1}",
+                        new Object[]{((HandlerTask) task).handler.getDescriptor().getDisplayName(), ((HandlerTask) task).event.getProjectFullName()});
+        }
+    }
+
+    @Terminator
+    public static void shutdownAll() {
+        for (PipelineTriggerHandlerExecutor executor : ExtensionList.lookup(PipelineTriggerHandlerExecutor.class))
+            executor.shutdown();
+    }
+
+    private static final class HandlerTask implements Runnable {
+
+        private final PipelineTriggerHandler handler;
+        private final PipelineTriggerEvent event;
+        private boolean running;
+
+        HandlerTask(PipelineTriggerHandler handler, PipelineTriggerEvent event) {
+            this.handler = handler;
+            this.event = event;
+        }
+
+        @Override
+        public void run() {
+            long start = System.currentTimeMillis();
+            // The timeout starts when the handler starts, not when the event was queued
+            Thread thread = Thread.currentThread();
+            running = true;
+            ScheduledFuture<?> timeout = Timer.get().schedule(() -> this.interrupt(thread), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            try {
+                handler.handle(event);
+            } catch (InterruptedException ex) {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] {0} timed out after {1} ms for {2}",
+                        new Object[]{handler.getDescriptor().getDisplayName(), System.currentTimeMillis() - start, event.getProjectFullName()});
+            } catch (Exception ex) {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] " + handler.getDescriptor().getDisplayName() +
+                        " failed for " + event.getProjectFullName(), ex);
+            } finally {
+                synchronized (this) {
+                    running = false;
+                }
+                timeout.cancel(false);
+                // Clear an interrupt of the timeout, the next task of the pool thread must not see it
+                Thread.interrupted();
+            }
+        }
+
+        /**
+         * Interrupt @thread if it still runs the handler. A timeout firing after the handler returned, even if it
+         * already started when it was cancelled, must not interrupt the next task of the pool thread.
+         */
+        private synchronized void interrupt(Thread thread) {
+            if (running)
+                thread.interrupt();
+        }
+    }
+}
@@ -4,17 +4,24 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import com.cloudbees.hudson.plugins.folder.AbstractFolder;
 import com.cloudbees.hudson.plugins.folder.AbstractFolderProperty;
 import com.cloudbees.hudson.plugins.folder.AbstractFolderPropertyDescriptor;
+import hudson.DescriptorExtensionList;
 import hudson.Extension;
 import hudson.Util;
 import hudson.model.*;
 import hudson.model.listeners.ItemListener;
 import hudson.util.DescribableList;
-import jenkins.branch.Branch;
+import hudson.util.FormValidation;
 import jenkins.branch.MultiBranchProject;
 import jenkins.branch.OrganizationFolder;
 import jenkins.model.Jenkins;
+import jenkins.model.ParameterizedJobMixIn;
 import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMHeadOrigin;
+import jenkins.scm.api.SCMRevisionAction;
+import jenkins.scm.api.mixin.ChangeRequestSCMHead;
 import jenkins.scm.api.mixin.ChangeRequestSCMHead2;
+import jenkins.scm.api.mixin.TagSCMHead;
+import jenkins.util.SystemProperties;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
@@ -22,12 +29,16 @@ import org.kohsuke.stapler.QueryParameter;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.StringTokenizer;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Job property to enable setting jobs to trigger when a pipeline is created or deleted.
@@ -41,12 +52,19 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
 
     private static final Logger LOGGER = Logger.getLogger(PipelineTriggerProperty.class.getName());
 
-    private String createActionJobsToTrigger = "";
-    private String deleteActionJobsToTrigger = "";
-    private String actionJobsToTriggerOnRunDelete = "";
-    private transient List<Job> createActionJobs = new ArrayList<>();
-    private transient List<Job> deleteActionJobs = new ArrayList<>();
-    private transient List<Job> actionJobsOnRunDelete = new ArrayList<>();
+    private List<ActionJobReference> createActionJobReferences = new ArrayList<>();
+    private List<ActionJobReference> deleteActionJobReferences = new ArrayList<>();
+    private List<ActionJobReference> actionJobReferencesOnRunDelete = new ArrayList<>();
+    private List<ActionJobReference> updateActionJobReferences = new ArrayList<>();
+    /** Only read from configurations saved by older versions, migrated in {@link #readResolve()}. */
+    @Deprecated
+    private String createActionJobsToTrigger;
+    /** Only read from configurations saved by older versions, migrated in {@link #readResolve()}. */
+    @Deprecated
+    private String deleteActionJobsToTrigger;
+    /** Only read from configurations saved by older versions, migrated in {@link #readResolve()}. */
+    @Deprecated
+    private String actionJobsToTriggerOnRunDelete;
     @SuppressFBWarnings(value = "SS_SHOULD_BE_STATIC", justification = "TODO needs triage")
     private final int quitePeriod = 0;
     static final String projectNameParameterKey = "SOURCE_PROJECT_NAME";
@@ -58,6 +76,19 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
     private String branchIncludeFilter = "*";
     private String branchExcludeFilter = "";
     private List<AdditionalParameter> additionalParameters = new ArrayList<>();
+    private boolean skipParameterDefinitions;
+    private PendingCreatePolicy pendingCreatePolicy;
+    private boolean triggerOnHeadEvents;
+    private boolean adaptiveScheduling;
+    private RunDeleteFilter runDeleteFilter;
+    private List<PipelineTriggerHandler> handlers = new ArrayList<>();
+    private List<TriggerRule> rules = new ArrayList<>();
+    private transient volatile TriggerRuleTable ruleTable;
+    private transient volatile BranchFilter includeFilter;
+    private transient volatile BranchFilter excludeFilter;
+    private transient volatile BoundedLruCache<BranchFilter.Subject, BranchEventContext.FilterVerdict> filterVerdictCache;
+    private static final int AUTO_COMPLETE_LIMIT = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".autoCompleteLimit", 100);
+    private static final int FILTER_VERDICT_CACHE_SIZE = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".filterVerdictCacheSize", 1024);
 
     /**
      * @param createActionJobsToTrigger      Full names of the jobs in comma separated format which are defined in the field
@@ -80,25 +111,52 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
         this.setAdditionalParameters(additionalParameters);
     }
 
+    /**
+     * Migrate comma separated job names of older versions to ActionJobReference lists.
+     * Runs for every property while jobs are loaded, so only names are parsed here. No Job is resolved and no item is
+     * scanned, references are resolved by full name when an event fires.
+     *
+     * @return this
+     */
+    protected Object readResolve() {
+        if (this.createActionJobsToTrigger != null || this.createActionJobReferences == null)
+            this.createActionJobReferences = ActionJobReference.parse(this.createActionJobsToTrigger);
+        if (this.deleteActionJobsToTrigger != null || this.deleteActionJobReferences == null)
+            this.deleteActionJobReferences = ActionJobReference.parse(this.deleteActionJobsToTrigger);
+        if (this.actionJobsToTriggerOnRunDelete != null || this.actionJobReferencesOnRunDelete == null)
+            this.actionJobReferencesOnRunDelete = ActionJobReference.parse(this.actionJobsToTriggerOnRunDelete);
+        this.createActionJobsToTrigger = null;
+        this.deleteActionJobsToTrigger = null;
+        this.actionJobsToTriggerOnRunDelete = null;
+        if (this.updateActionJobReferences == null)
+            this.updateActionJobReferences = new ArrayList<>();
+        if (this.additionalParameters == null)
+            this.additionalParameters = new ArrayList<>();
+        if (this.handlers == null)
+            this.handlers = new ArrayList<>();
+        if (this.rules == null)
+            this.rules = new ArrayList<>();
+        return this;
+    }
+
     /**
      * Getter method for @createActionJobsToTrigger
      *
      * @return Full names of the jobs in comma separated format
      */
     public String getCreateActionJobsToTrigger() {
-        return createActionJobsToTrigger;
+        return ActionJobReference.toCommaSeparatedString(this.getCreateActionJobReferences());
     }
 
     /**
      * Setter method for @createActionJobsToTrigger
-     * Additionally. this methods parses job names from @createActionJobsToTrigger, convert to List of Job and store in @createActionJobs for later use.
+     * Additionally. this methods parses job names from @createActionJobsToTrigger and stores them as @createActionJobReferences.
      *
      * @param createActionJobsToTrigger Full names of the jobs in comma separated format which are defined in the field
      */
     @DataBoundSetter
     public void setCreateActionJobsToTrigger(String createActionJobsToTrigger) {
-        this.createActionJobsToTrigger = createActionJobsToTrigger;
-        this.setCreateActionJobs(this.validateJobString(this.getCreateActionJobsToTrigger()));
+        this.setCreateActionJobReferences(ActionJobReference.parse(createActionJobsToTrigger));
     }
 
     /**
@@ -107,19 +165,18 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @return Full names of the jobs in comma-separated format
      */
     public String getDeleteActionJobsToTrigger() {
-        return deleteActionJobsToTrigger;
+        return ActionJobReference.toCommaSeparatedString(this.getDeleteActionJobReferences());
     }
 
     /**
      * Setter method for @deleteActionJobsToTrigger
-     * Additionally. this methods parses job names from @deleteActionJobsToTrigger, convert to List of Job and store in @deleteActionJobs for later use.
+     * Additionally. this methods parses job names from @deleteActionJobsToTrigger and stores them as @deleteActionJobReferences.
      *
      * @param deleteActionJobsToTrigger Full names of the jobs in comma-separated format which are defined in the field
      */
     @DataBoundSetter
     public void setDeleteActionJobsToTrigger(String deleteActionJobsToTrigger) {
-        this.deleteActionJobsToTrigger = deleteActionJobsToTrigger;
-        this.setDeleteActionJobs(this.validateJobString(this.getDeleteActionJobsToTrigger()));
+        this.setDeleteActionJobReferences(ActionJobReference.parse(deleteActionJobsToTrigger));
     }
 
     /**
@@ -128,20 +185,55 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @return Full names of the jobs in comma-separated format
      */
     public String getActionJobsToTriggerOnRunDelete() {
-        return actionJobsToTriggerOnRunDelete;
+        return ActionJobReference.toCommaSeparatedString(this.getActionJobReferencesOnRunDelete());
     }
 
     /**
      * Setter method for @actionJobsToTriggerOnRunDelete
-     * Additionally. this methods parses job names from @actionJobsToTriggerOnRunDelete,
-     * convert to List of Job and store in @actionJobsOnRunDelete for later use.
+     * Additionally. this methods parses job names from @actionJobsToTriggerOnRunDelete
+     * and stores them as @actionJobReferencesOnRunDelete.
      *
      * @param actionJobsToTriggerOnRunDelete Full names of the jobs in comma-separated format which are defined in the field
      */
     @DataBoundSetter
     public void setActionJobsToTriggerOnRunDelete(String actionJobsToTriggerOnRunDelete) {
-        this.actionJobsToTriggerOnRunDelete = actionJobsToTriggerOnRunDelete;
-        this.setActionJobsOnRunDelete(this.validateJobString(this.getActionJobsToTriggerOnRunDelete()));
+        this.setActionJobReferencesOnRunDelete(ActionJobReference.parse(actionJobsToTriggerOnRunDelete));
+    }
+
+    public List<ActionJobReference> getCreateActionJobReferences() {
+        return createActionJobReferences;
+    }
+
+    @DataBoundSetter
+    public void setCreateActionJobReferences(List<ActionJobReference> createActionJobReferences) {
+        this.createActionJobReferences = createActionJobReferences == null ? new ArrayList<>() : createActionJobReferences;
+    }
+
+    public List<ActionJobReference> getDeleteActionJobReferences() {
+        return deleteActionJobReferences;
+    }
+
+    @DataBoundSetter
+    public void setDeleteActionJobReferences(List<ActionJobReference> deleteActionJobReferences) {
+        this.deleteActionJobReferences = deleteActionJobReferences == null ? new ArrayList<>() : deleteActionJobReferences;
+    }
+
+    public List<ActionJobReference> getActionJobReferencesOnRunDelete() {
+        return actionJobReferencesOnRunDelete;
+    }
+
+    @DataBoundSetter
+    public void setActionJobReferencesOnRunDelete(List<ActionJobReference> actionJobReferencesOnRunDelete) {
+        this.actionJobReferencesOnRunDelete = actionJobReferencesOnRunDelete == null ? new ArrayList<>() : actionJobReferencesOnRunDelete;
+    }
+
+    public List<ActionJobReference> getUpdateActionJobReferences() {
+        return updateActionJobReferences;
+    }
+
+    @DataBoundSetter
+    public void setUpdateActionJobReferences(List<ActionJobReference> updateActionJobReferences) {
+        this.updateActionJobReferences = updateActionJobReferences == null ? new ArrayList<>() : updateActionJobReferences;
     }
 
     /**
@@ -150,7 +242,7 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @return List of Job for Pre Action
      */
     public List<Job> getCreateActionJobs() {
-        return this.validateJobString(this.getCreateActionJobsToTrigger());
+        return resolveJobs(this.getCreateActionJobReferences());
     }
 
     /**
@@ -159,7 +251,7 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @param createActionJobs List of Job for Pre Action
      */
     public void setCreateActionJobs(List<Job> createActionJobs) {
-        this.createActionJobs = createActionJobs;
+        this.setCreateActionJobReferences(toReferences(createActionJobs));
     }
 
     /**
@@ -168,7 +260,7 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @return List of Job for Post Action
      */
     public List<Job> getDeleteActionJobs() {
-        return this.validateJobString(this.getDeleteActionJobsToTrigger());
+        return resolveJobs(this.getDeleteActionJobReferences());
     }
 
     /**
@@ -177,7 +269,7 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @param deleteActionJobs List of Job for Post Action
      */
     public void setDeleteActionJobs(List<Job> deleteActionJobs) {
-        this.deleteActionJobs = deleteActionJobs;
+        this.setDeleteActionJobReferences(toReferences(deleteActionJobs));
     }
 
     /**
@@ -186,7 +278,7 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @return List of Job for Run Delete Action
      */
     public List<Job> getActionJobsOnRunDelete() {
-        return this.validateJobString(this.getActionJobsToTriggerOnRunDelete());
+        return resolveJobs(this.getActionJobReferencesOnRunDelete());
     }
 
     /**
@@ -195,9 +287,189 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
      * @param actionJobsOnRunDelete List of Job for Run Delete Action
      */
     public void setActionJobsOnRunDelete(List<Job> actionJobsOnRunDelete) {
-        this.actionJobsOnRunDelete = actionJobsOnRunDelete;
+        this.setActionJobReferencesOnRunDelete(toReferences(actionJobsOnRunDelete));
+    }
+
+    private static List<Job> resolveJobs(List<ActionJobReference> references) {
+        List<Job> jobs = new ArrayList<>();
+        for (ActionJobReference reference : references) {
+            Job job = reference.resolve();
+            if (job != null)
+                jobs.add(job);
+        }
+        return jobs;
+    }
+
+    private static List<ActionJobReference> toReferences(List<Job> jobs) {
+        List<ActionJobReference> references = new ArrayList<>();
+        if (jobs != null) {
+            for (Job job : jobs)
+                references.add(new ActionJobReference(job.getFullName()));
+        }
+        return references;
+    }
+
+    /**
+     * Cheap capability check for the Run Delete Event.
+     * Does not resolve any Job, so callers can use it to skip iterating the builds of a deleted branch
+     * when there is nothing to trigger for them.
+     *
+     * @return true if at least one job is defined in @actionJobReferencesOnRunDelete or a rule, or a handler handles Run Delete Events
+     */
+    public boolean isRunDeleteTriggerActive() {
+        return !this.getActionJobReferencesOnRunDelete().isEmpty() || this.getRuleTable().hasRules(PipelineTriggerBuildAction.deleteRunPipelineAction)
+                || this.hasHandlers(PipelineTriggerBuildAction.deleteRunPipelineAction);
+    }
+
+    /**
+     * @param action Event type
+     * @return true if at least one handler in @handlers handles @action
+     */
+    boolean hasHandlers(PipelineTriggerBuildAction action) {
+        for (PipelineTriggerHandler handler : this.getHandlers()) {
+            if (handler.isApplicable(action))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Pass an event to the handlers in @handlers which handle it. Handlers run on the handler pool,
+     * so this never waits for them.
+     *
+     * @param context Branch event context
+     * @param action  Event type
+     * @param run     Deleted Run, or null if the event is not a Run event
+     */
+    private void notifyHandlers(BranchEventContext context, PipelineTriggerBuildAction action, Run<?, ?> run) {
+        PipelineTriggerEvent event = null;
+        for (PipelineTriggerHandler handler : this.getHandlers()) {
+            if (!handler.isApplicable(action))
+                continue;
+            if (event == null)
+                event = new PipelineTriggerEvent(action, context, run);
+            PipelineTriggerHandlerExecutor.get().submit(handler, event);
+        }
+    }
+
+    /**
+     * @param action Event type
+     * @return References of the jobs triggered by @action, from the job list of @action and from all rules
+     */
+    List<ActionJobReference> getActionJobReferences(PipelineTriggerBuildAction action) {
+        List<ActionJobReference> references = this.getOwnActionJobReferences(action);
+        TriggerRuleTable table = this.getRuleTable();
+        if (!table.hasRules(action))
+            return references;
+        references = new ArrayList<>(references);
+        references.addAll(table.getReferences(action));
+        return references;
+    }
+
+    private List<ActionJobReference> getOwnActionJobReferences(PipelineTriggerBuildAction action) {
+        switch (action) {
+            case createPipelineAction:
+                return this.getCreateActionJobReferences();
+            case deletePipelineAction:
+                return this.getDeleteActionJobReferences();
+            case updatePipelineAction:
+                return this.getUpdateActionJobReferences();
+            default:
+                return this.getActionJobReferencesOnRunDelete();
+        }
+    }
+
+    /**
+     * References which could be triggered for a branch: the job list of @action and the references of the rules
+     * whose filter matches the branch. Conditions of the references are checked when they are resolved.
+     *
+     * @param action  Event type
+     * @param subject Branch of the event
+     * @return References in order: job list first, then rules in their order
+     */
+    private List<ActionJobReference> getMatchingReferences(PipelineTriggerBuildAction action, BranchFilter.Subject subject) {
+        List<ActionJobReference> references = this.getOwnActionJobReferences(action);
+        TriggerRuleTable table = this.getRuleTable();
+        if (!table.hasRules(action))
+            return references;
+        references = new ArrayList<>(references);
+        references.addAll(table.getMatchingReferences(action, subject));
+        return references;
+    }
+
+    private TriggerRuleTable getRuleTable() {
+        TriggerRuleTable table = this.ruleTable;
+        if (table == null) {
+            List<TriggerRule> triggerRules = this.getRules();
+            this.ruleTable = table = triggerRules.isEmpty() ? TriggerRuleTable.EMPTY : new TriggerRuleTable(triggerRules);
+        }
+        return table;
     }
 
+    /**
+     * @return Full names of the referenced jobs with the event types referencing them
+     */
+    Map<String, Set<PipelineTriggerBuildAction>> getReferencedJobNames() {
+        Map<String, Set<PipelineTriggerBuildAction>> jobNames = new HashMap<>();
+        for (PipelineTriggerBuildAction action : PipelineTriggerBuildAction.values()) {
+            for (ActionJobReference reference : this.getActionJobReferences(action))
+                jobNames.computeIfAbsent(reference.getFullName(), k -> EnumSet.noneOf(PipelineTriggerBuildAction.class)).add(action);
+        }
+        return jobNames;
+    }
+
+    /**
+     * Estimate how many times @jobFullName is triggered by @action when every branch of @project fires it once,
+     * e.g. an indexing run creating or deleting all branches. Only branch jobs already loaded in memory are checked
+     * against the filters and the conditions of the references, no Runs are loaded.
+     *
+     * @param project     Multi branch project which has this property
+     * @param jobFullName Full name of the action job
+     * @param action      Event type
+     * @return Number of branches which would trigger the job
+     */
+    int estimateFanOut(MultiBranchProject<?, ?> project, String jobFullName, PipelineTriggerBuildAction action) {
+        int fanOut = 0;
+        boolean referenced = false;
+        for (ActionJobReference reference : this.getActionJobReferences(action))
+            referenced |= reference.getFullName().equals(jobFullName);
+        if (!referenced)
+            return fanOut;
+        for (Job<?, ?> branchJob : project.getItems()) {
+            if (!(branchJob instanceof WorkflowJob))
+                continue;
+            BranchEventContext context = this.createBranchEventContext((WorkflowJob) branchJob);
+            if (!context.isIncluded())
+                continue;
+            for (ActionJobReference reference : this.getMatchingReferences(action, context.getSubject())) {
+                if (reference.getFullName().equals(jobFullName) && reference.matches(context.getSubject()))
+                    fanOut++;
+            }
+        }
+        return fanOut;
+    }
+
+    /**
+     * Rewrite references of a moved or renamed Job.
+     *
+     * @param oldFullName Full name of the Job before it was moved
+     * @param newFullName Full name of the Job after it was moved
+     * @return true if any reference was rewritten
+     */
+    boolean relocateActionJob(String oldFullName, String newFullName) {
+        boolean relocated = false;
+        for (PipelineTriggerBuildAction action : PipelineTriggerBuildAction.values()) {
+            for (ActionJobReference reference : this.getActionJobReferences(action)) {
+                if (reference.getFullName().equals(oldFullName)) {
+                    reference.relocate(newFullName);
+                    relocated = true;
+                }
+            }
+        }
+        return relocated;
+    }
+
+
     /**
      * @see AbstractFolderPropertyDescriptor
      */
@@ -214,6 +486,13 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
             return "Pipeline Trigger";
         }
 
+        /**
+         * @return Descriptors of all registered PipelineTriggerHandler(s)
+         */
+        public DescriptorExtensionList<PipelineTriggerHandler, Descriptor<PipelineTriggerHandler>> getHandlerDescriptors() {
+            return Jenkins.get().getDescriptorList(PipelineTriggerHandler.class);
+        }
+
         /**
          * Return true if calling class is MultiBranchProject
          *
@@ -232,305 +511,379 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
         }
 
         /**
-         * Auto complete methods @createActionJobsToTrigger field.
+         * Validate syntax of the @branchIncludeFilter field.
          *
-         * @param value Value to search in Job Full Names
-         * @return AutoCompletionCandidates
+         * @param value Filter definition
+         * @return FormValidation
          */
-        public AutoCompletionCandidates doAutoCompleteCreateActionJobsToTrigger(@QueryParameter String value) {
-            return this.autoCompleteCandidates(value);
+        public FormValidation doCheckBranchIncludeFilter(@QueryParameter String value) {
+            return checkFilter(value);
         }
 
         /**
-         * Auto complete methods @deleteActionJobsToTrigger field.
+         * Validate syntax of the @branchExcludeFilter field.
          *
-         * @param value Value to search in Job Full Namesif
-         * @return AutoCompletionCandidates
+         * @param value Filter definition
+         * @return FormValidation
          */
-        public AutoCompletionCandidates doAutoCompleteDeleteActionJobsToTrigger(@QueryParameter String value) {
-            return this.autoCompleteCandidates(value);
+        public FormValidation doCheckBranchExcludeFilter(@QueryParameter String value) {
+            return checkFilter(value);
+        }
+
+        static FormValidation checkFilter(String value) {
+            try {
+                BranchFilter.compile(value);
+                return FormValidation.ok();
+            } catch (IllegalArgumentException ex) {
+                return FormValidation.error(ex.getMessage());
+            }
         }
 
         /**
-         * Auto complete methods @deleteActionJobsToTrigger field.
+         * Check a job name against the JobNameIndex, then resolve it only if it is known.
+         * Reports unknown jobs and jobs which can not be triggered with parameters as errors,
+         * disabled jobs and jobs without @Item.BUILD permission as warnings.
          *
-         * @param value Value to search in Job Full Namesif
-         * @return AutoCompletionCandidates
+         * @param item  Configured item
+         * @param value Full name of a single job
+         * @return FormValidation
          */
-        public AutoCompletionCandidates doAutoCompleteActionJobsToTriggerOnRunDelete(@QueryParameter String value) {
-            return this.autoCompleteCandidates(value);
+        static FormValidation checkJobName(Item item, String value) {
+            if (item == null ? !Jenkins.get().hasPermission(Jenkins.ADMINISTER) : !item.hasPermission(Item.CONFIGURE))
+                return FormValidation.ok();
+            String jobName = Util.fixNull(value).trim();
+            if (jobName.isEmpty())
+                return FormValidation.ok();
+            Job job = JobNameIndex.get().contains(jobName) ? Jenkins.get().getItemByFullName(jobName, Job.class) : null;
+            if (job == null)
+                return FormValidation.error("Unknown job: " + jobName);
+            else if (!(job instanceof ParameterizedJobMixIn.ParameterizedJob))
+                return FormValidation.error("Job can not be triggered with parameters: " + jobName);
+            else if (!job.isBuildable())
+                return FormValidation.warning("Job is disabled or can not be built: " + jobName);
+            else if (!job.hasPermission(Item.BUILD))
+                return FormValidation.warning("No permission to build job: " + jobName);
+            return FormValidation.ok();
         }
 
         /**
-         * Get all Job items in Jenkins. Filter them if they contain @value in Job Full names.
-         * Also filter Jobs which have @Item.BUILD and @Item.READ permissions.
+         * Search Job full names containing @value in the JobNameIndex, names starting with @value first.
+         * Only the returned candidates are resolved and filtered by @Item.BUILD and @Item.READ permissions,
+         * at most @AUTO_COMPLETE_LIMIT of them.
          *
          * @param value Value to search in Job Full Names
          * @return AutoCompletionCandidates
          */
-        private AutoCompletionCandidates autoCompleteCandidates(String value) {
+        static AutoCompletionCandidates autoCompleteCandidates(String value) {
             AutoCompletionCandidates candidates = new AutoCompletionCandidates();
-            List<Job> jobs = Jenkins.getInstance().getAllItems(Job.class);
-            for (Job job : jobs) {
-                String jobName = job.getFullName();
-                if (jobName.contains(value.trim()) && job.hasPermission(Item.BUILD) && job.hasPermission(Item.READ))
-                    candidates.add(jobName);
-            }
+            List<String> jobNames = JobNameIndex.get().search(Util.fixNull(value).trim(), AUTO_COMPLETE_LIMIT, jobName -> {
+                Job job = Jenkins.get().getItemByFullName(jobName, Job.class);
+                return job != null && job.hasPermission(Item.BUILD) && job.hasPermission(Item.READ);
+            });
+            for (String jobName : jobNames)
+                candidates.add(jobName);
             return candidates;
         }
 
     }
 
     public void setTriggerJobParameters(){
+        if (this.isSkipParameterDefinitions())
+            return;
         this.setJobParametersForCreateActionTriggers();
         this.setJobParameterForDeleteActionTriggers();
         this.setJobParameterForJobsOnRunDeleteTriggers();
     }
 
     private void setJobParametersForCreateActionTriggers() {
-        this.setJobParameters(this.getCreateActionJobs(), false, this.getAdditionalParameters());
+        this.setJobParameters(resolveReferences(this.getActionJobReferences(PipelineTriggerBuildAction.createPipelineAction), null), false);
     }
 
     private void setJobParameterForDeleteActionTriggers() {
-        this.setJobParameters(this.getDeleteActionJobs(), false, this.getAdditionalParameters());
+        this.setJobParameters(resolveReferences(this.getActionJobReferences(PipelineTriggerBuildAction.deletePipelineAction), null), false);
     }
 
     private void setJobParameterForJobsOnRunDeleteTriggers() {
-        this.setJobParameters(this.getActionJobsOnRunDelete(), true, this.getAdditionalParameters());
-    }
-
-    private List<Job> validateJobString(String actionTriggersJobString) {
-        List<Job> jobs = Jenkins.getInstance().getAllItems(Job.class);
-        List<Job> validatedJobs = new ArrayList<>();
-        StringTokenizer tokenizer = new StringTokenizer(Util.fixNull(Util.fixEmptyAndTrim(actionTriggersJobString)), ",");
-        while (tokenizer.hasMoreTokens()) {
-            String tokenJobName = tokenizer.nextToken();
-            for (Job job : jobs) {
-                if (job.getFullName().trim().equals(tokenJobName.trim())) {
-                    validatedJobs.add(job);
-                }
-            }
-        }
-        return validatedJobs;
+        this.setJobParameters(resolveReferences(this.getActionJobReferences(PipelineTriggerBuildAction.deleteRunPipelineAction), null), true);
     }
 
     /**
-     * Find and check Jobs which are defined in @actionJobsToTrigger in comma-separated format.
-     * Additionally, create StringParameterDefinition(s) in Jobs to pass @projectNameParameterKey
-     * and possibly @runNumberParameterKey and @runDisplayNameParameterKey as build value.
+     * Resolve referenced Jobs by their full names. References which can not be resolved are skipped.
      *
-     * @param actionJobsToTrigger Full names of the Jobs in comma-separated format which are defined in the field
-     * @param addRunParameters    If the parameters for Run number and Run display names should also be created on the job
-     * @return List of Job
-     */
-    private void setJobParameters(List<Job> actionJobsToTrigger, boolean addRunParameters, List<AdditionalParameter> additionalParameters) {
-        for (Job job : actionJobsToTrigger) {
-            List<ParameterDefinition> parameters = new ArrayList<>();
-            //Try to add job properties. If fails do not stop just log warning.
-                parameters.add(new StringParameterDefinition(
-                        PipelineTriggerProperty.projectNameParameterKey,
-                        "This will be set by MultiBranch Pipeline Plugin",
-                        "Added by MultiBranch Pipeline Plugin"));
-                parameters.add(new StringParameterDefinition(
-                        PipelineTriggerProperty.projectFullNameParameterKey,
-                        "This will be set by MultiBranch Pipeline Plugin",
-                        "Added by MultiBranch Pipeline Plugin"));
-                parameters.add(new StringParameterDefinition(
-                        PipelineTriggerProperty.sourceBranchName,
-                        "This will be set by MultiBranch Pipeline Plugin",
-                        "Added by MultiBranch Pipeline Plugin"));
-                parameters.add(new StringParameterDefinition(
-                        PipelineTriggerProperty.targetBranchName,
-                        "This will be set by MultiBranch Pipeline Plugin",
-                        "Added by MultiBranch Pipeline Plugin"));
-            if (addRunParameters) {
-                parameters.add(new StringParameterDefinition(
-                        PipelineTriggerProperty.runNumberParameterKey,
-                        "This will be set by MultiBranch Pipeline Plugin",
-                        "Added by MultiBranch Pipeline Plugin"));
-            }
-            if (addRunParameters ) {
-                parameters.add(new StringParameterDefinition(
-                        PipelineTriggerProperty.runDisplayNameParameterKey,
-                        "This will be set by MultiBranch Pipeline Plugin",
-                        "Added by MultiBranch Pipeline Plugin"));
-            }
-            if (additionalParameters != null) {
-                for (AdditionalParameter additionalParameter : additionalParameters) {
-                        parameters.add(new StringParameterDefinition(
-                                additionalParameter.getName(),
-                                additionalParameter.getValue(),
-                                "Added by MultiBranch Pipeline Plugin"
-                        ));
-                }
+     * @param references List of ActionJobReference
+     * @param subject    Branch of the event. If not null, references whose condition does not match it are skipped.
+     * @return Resolved Jobs by their reference, in the order of the references
+     */
+    private static Map<ActionJobReference, Job> resolveReferences(List<ActionJobReference> references, BranchFilter.Subject subject) {
+        Map<ActionJobReference, Job> actionJobs = new LinkedHashMap<>();
+        for (ActionJobReference reference : references) {
+            if (subject != null && !reference.matches(subject)) {
+                LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] {0} skipped, condition does not match {1}",
+                        new Object[]{reference.getFullName(), subject.getName()});
+                continue;
             }
+            Job job = reference.resolve();
+            if (job != null)
+                actionJobs.put(reference, job);
+            else
+                LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Job not found: {0}", reference.getFullName());
+        }
+        return actionJobs;
+    }
 
-            if (!parameters.isEmpty()) {
-                try {
-                    ParametersDefinitionProperty jobParameterProperty = (ParametersDefinitionProperty) job.getProperty(ParametersDefinitionProperty.class);
-
-                    // Only add parameters if they don't already exist
-                    if (jobParameterProperty == null) {
-                        job.addProperty(new ParametersDefinitionProperty(parameters));
-                    } else {
-                        boolean parametersChanged = false;
-                        List<ParameterDefinition> jobParameters = new ArrayList<>(jobParameterProperty.getParameterDefinitions());
-
-                        for (ParameterDefinition newParam : parameters) {
-                            if (jobParameters.stream().noneMatch(p -> p.getName().equals(newParam.getName()))) {
-                                parametersChanged = true;
-                                jobParameters.add(newParam);
-                            }
-                        }
-
-                        if (parametersChanged) {
-                            job.removeProperty(ParametersDefinitionProperty.class);
-                            job.addProperty(new ParametersDefinitionProperty(jobParameters));
-                        }
-                    }
+    /**
+     * Define the parameters of the events in the resolved Jobs, see {@link ActionJobParameterReconciler#reconcile}.
+     * Jobs which already define all of them are not changed or saved, so this is cheap on the trigger path.
+     *
+     * @param actionJobs       Resolved Jobs by their reference
+     * @param addRunParameters If the parameters for Run number and Run display names should also be created on the job
+     */
+    private void setJobParameters(Map<ActionJobReference, Job> actionJobs, boolean addRunParameters) {
+        if (this.isSkipParameterDefinitions())
+            return;
+        for (Map.Entry<ActionJobReference, Job> actionJob : actionJobs.entrySet()) {
+            ActionJobParameterReconciler.reconcile(actionJob.getValue(), this.getParameterDefinitions(actionJob.getKey(), addRunParameters));
+        }
+    }
 
-                    job.save();
-                } catch (Exception ex) {
-                    LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not set String Parameter Definitions." +
-                                    " This may affect jobs which are triggered from MultiBranch Pipeline Plugin.",
-                            ex);
-                }
+    /**
+     * Collect the parameter definitions which the referenced Jobs of all events need.
+     * The first definition of a name wins, like existing definitions of a Job are never replaced.
+     *
+     * @param desiredDefinitions Parameter definitions by name, by Job full name. Definitions of this property are added
+     */
+    void collectParameterDefinitions(Map<String, Map<String, ParameterDefinition>> desiredDefinitions) {
+        if (this.isSkipParameterDefinitions())
+            return;
+        for (PipelineTriggerBuildAction action : PipelineTriggerBuildAction.values()) {
+            for (ActionJobReference reference : this.getActionJobReferences(action)) {
+                Map<String, ParameterDefinition> definitions = desiredDefinitions.computeIfAbsent(reference.getFullName(), k -> new LinkedHashMap<>());
+                for (ParameterDefinition definition : this.getParameterDefinitions(reference, action == PipelineTriggerBuildAction.deleteRunPipelineAction))
+                    definitions.putIfAbsent(definition.getName(), definition);
             }
         }
     }
 
     /**
-     * Get full names Jobs and return in comma separated format.
+     * StringParameterDefinition(s) an action job needs to receive @projectNameParameterKey
+     * and possibly @runNumberParameterKey and @runDisplayNameParameterKey as build value.
+     * Additional Parameters of the property and of the reference are defined as well.
      *
-     * @param jobs List of Job
-     * @return Full names of the jobs in comma separated format
+     * @param reference        Reference of the action job
+     * @param addRunParameters If the parameters for Run number and Run display names should also be created on the job
+     * @return List of ParameterDefinition
      */
-    private String convertJobsToCommaSeparatedString(List<Job> jobs) {
-        List<String> jobFullNames = jobs.stream().map(AbstractItem::getFullName).collect(Collectors.toList());
-        return String.join(",", jobFullNames);
+    List<ParameterDefinition> getParameterDefinitions(ActionJobReference reference, boolean addRunParameters) {
+        Map<String, AdditionalParameter> additionalParameterByName = new LinkedHashMap<>();
+        for (AdditionalParameter additionalParameter : this.getAdditionalParameters())
+            additionalParameterByName.put(additionalParameter.getName(), additionalParameter);
+        for (AdditionalParameter additionalParameter : reference.getParameters())
+            additionalParameterByName.put(additionalParameter.getName(), additionalParameter);
+        List<ParameterDefinition> parameters = new ArrayList<>();
+        parameters.add(new StringParameterDefinition(
+                PipelineTriggerProperty.projectNameParameterKey,
+                "This will be set by MultiBranch Pipeline Plugin",
+                "Added by MultiBranch Pipeline Plugin"));
+        parameters.add(new StringParameterDefinition(
+                PipelineTriggerProperty.projectFullNameParameterKey,
+                "This will be set by MultiBranch Pipeline Plugin",
+                "Added by MultiBranch Pipeline Plugin"));
+        parameters.add(new StringParameterDefinition(
+                PipelineTriggerProperty.sourceBranchName,
+                "This will be set by MultiBranch Pipeline Plugin",
+                "Added by MultiBranch Pipeline Plugin"));
+        parameters.add(new StringParameterDefinition(
+                PipelineTriggerProperty.targetBranchName,
+                "This will be set by MultiBranch Pipeline Plugin",
+                "Added by MultiBranch Pipeline Plugin"));
+        if (addRunParameters) {
+            parameters.add(new StringParameterDefinition(
+                    PipelineTriggerProperty.runNumberParameterKey,
+                    "This will be set by MultiBranch Pipeline Plugin",
+                    "Added by MultiBranch Pipeline Plugin"));
+            parameters.add(new StringParameterDefinition(
+                    PipelineTriggerProperty.runDisplayNameParameterKey,
+                    "This will be set by MultiBranch Pipeline Plugin",
+                    "Added by MultiBranch Pipeline Plugin"));
+        }
+        for (AdditionalParameter additionalParameter : additionalParameterByName.values()) {
+            parameters.add(new StringParameterDefinition(
+                    additionalParameter.getName(),
+                    additionalParameter.getValue(),
+                    "Added by MultiBranch Pipeline Plugin"
+            ));
+        }
+        return parameters;
     }
 
     /**
-     * Build Jobs which are defined in the @createActionJobsToTrigger field.
+     * Build Jobs which are defined in the @createActionJobReferences field.
      *
-     * @param projectName     Name of the project. This will be branch name which is found in branch indexing.
-     *                        Also this value will be passed as StringParameterDefinition
-     * @param projectFullName Full name of the project.
-     *                        Also this value will be passed as StringParameterDefinition
-     * @param sourceBranchName  Source Branch Name. Also this value will be passed as StringParameterDefinition
-     * @param targetBranchName  Target Branch Name. Also this value will be passed as StringParameterDefinition.
-     *                          Applicable only for PR jobs
+     * @param context Branch event context. Its parameter values will be passed as StringParameterDefinition
      */
-    private void buildCreateActionJobs(String projectName, String projectFullName, String sourceBranchName, String targetBranchName) {
-        this.setJobParametersForCreateActionTriggers();
-        this.buildJobs(projectName, projectFullName, null, null, this.getCreateActionJobs(), sourceBranchName, targetBranchName);
+    private void buildCreateActionJobs(BranchEventContext context) {
+        this.notifyHandlers(context, PipelineTriggerBuildAction.createPipelineAction, null);
+        Map<ActionJobReference, Job> actionJobs = resolveReferences(this.getMatchingReferences(PipelineTriggerBuildAction.createPipelineAction, context.getSubject()), context.getSubject());
+        this.setJobParameters(actionJobs, false);
+        this.buildJobs(context, PipelineTriggerBuildAction.createPipelineAction, null, actionJobs);
     }
 
     /**
-     * Build Jobs which are defined in the @deleteActionJobsToTrigger field.
+     * Build Jobs which are defined in the @deleteActionJobReferences field.
      *
-     * @param projectName     Name of the project. This will be branch name which is found in branch indexing.
-     *                        Also this value will be passed as StringParameterDefinition
-     * @param projectFullName Full name of the project.
-     *                        Also this value will be passed as StringParameterDefinition
-     * @param sourceBranchName  Source Branch Name. Also this value will be passed as StringParameterDefinition
-     * @param targetBranchName  Target Branch Name. Also this value will be passed as StringParameterDefinition
-     *                          Applicable only for PR jobs
+     * @param context Branch event context. Its parameter values will be passed as StringParameterDefinition
      */
-    private void buildDeleteActionJobs(String projectName, String projectFullName, String sourceBranchName, String targetBranchName) {
-        this.setJobParameterForDeleteActionTriggers();
-        this.buildJobs(projectName, projectFullName, null, null, this.getDeleteActionJobs(), sourceBranchName, targetBranchName);
+    private void buildDeleteActionJobs(BranchEventContext context) {
+        this.notifyHandlers(context, PipelineTriggerBuildAction.deletePipelineAction, null);
+        Map<ActionJobReference, Job> actionJobs = resolveReferences(this.getMatchingReferences(PipelineTriggerBuildAction.deletePipelineAction, context.getSubject()), context.getSubject());
+        this.setJobParameters(actionJobs, false);
+        this.buildJobs(context, PipelineTriggerBuildAction.deletePipelineAction, null, actionJobs);
     }
 
     /**
-     * Build Jobs which are defined in the @actionJobsToTriggerOnRunDelete field.
+     * Build Jobs which are defined in the @updateActionJobReferences field.
      *
-     * @param projectName     Name of the project. This will be branch name which is found in branch indexing.
-     *                        Also this value will be passed as StringParameterDefinition
-     * @param projectFullName Full name of the project.
-     *                        Also this value will be passed as StringParameterDefinition
-     * @param runNumber       Number of the upstream build.
-     *                        This value will be passed as StringParameterDefinition.
-     * @param runDisplayName  Display Name of the upstream build.
-     *                        This value will be passed as StringParameterDefinition.
-     * @param sourceBranchName  Source Branch Name. Also this value will be passed as StringParameterDefinition
-     * @param targetBranchName  Target Branch Name. Also this value will be passed as StringParameterDefinition
-     *                          Applicable only for PR jobs
+     * @param context Branch event context. Its parameter values will be passed as StringParameterDefinition
      */
-    private void buildActionJobsOnRunDelete(String projectName, String projectFullName, Integer runNumber, String runDisplayName, String sourceBranchName, String targetBranchName) {
-        this.setJobParameterForJobsOnRunDeleteTriggers();
-        this.buildJobs(projectName, projectFullName, runNumber, runDisplayName, this.getActionJobsOnRunDelete(), sourceBranchName, targetBranchName);
+    private void buildUpdateActionJobs(BranchEventContext context) {
+        this.notifyHandlers(context, PipelineTriggerBuildAction.updatePipelineAction, null);
+        Map<ActionJobReference, Job> actionJobs = resolveReferences(this.getMatchingReferences(PipelineTriggerBuildAction.updatePipelineAction, context.getSubject()), context.getSubject());
+        this.setJobParameters(actionJobs, false);
+        this.buildJobs(context, PipelineTriggerBuildAction.updatePipelineAction, null, actionJobs);
+    }
+
+    /**
+     * Build Jobs which are defined in the @actionJobReferencesOnRunDelete field once for every Run matching @runDeleteFilter.
+     * Runs are filtered first, then Jobs are resolved and their parameters are set only once, regardless of the number of Runs.
+     *
+     * @param context Branch event context. Its parameter values will be passed as StringParameterDefinition
+     * @param runs    Deleted Runs. Number and display name of each Run will be passed as StringParameterDefinition
+     */
+    private void buildActionJobsOnRunDelete(BranchEventContext context, Iterable<? extends Run<?, ?>> runs) {
+        RunDeleteFilter filter = this.getRunDeleteFilter();
+        if (filter != null) {
+            List<Run<?, ?>> matchingRuns = new ArrayList<>();
+            int skipped = 0;
+            for (Run<?, ?> run : runs) {
+                if (filter.matches(run))
+                    matchingRuns.add(run);
+                else
+                    skipped++;
+            }
+            if (skipped > 0)
+                LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] {0} deleted Run(s) of {1} skipped by the Run Delete Filter",
+                        new Object[]{skipped, context.getProjectFullName()});
+            if (matchingRuns.isEmpty())
+                return;
+            runs = matchingRuns;
+        }
+        if (this.hasHandlers(PipelineTriggerBuildAction.deleteRunPipelineAction)) {
+            for (Run<?, ?> run : runs)
+                this.notifyHandlers(context, PipelineTriggerBuildAction.deleteRunPipelineAction, run);
+        }
+        Map<ActionJobReference, Job> actionJobs = resolveReferences(this.getMatchingReferences(PipelineTriggerBuildAction.deleteRunPipelineAction, context.getSubject()), context.getSubject());
+        if (actionJobs.isEmpty())
+            return;
+        this.setJobParameters(actionJobs, true);
+        for (Run<?, ?> run : runs) {
+            this.buildJobs(context, PipelineTriggerBuildAction.deleteRunPipelineAction, run, actionJobs);
+        }
     }
 
 
     /**
      * Build Jobs and pass parameter to Build
      *
-     * @param projectName     Name of the project. This value will be passed as StringParameterDefinition
-     * @param projectFullName Full name of the project.
-     *                        Also this value will be passed as StringParameterDefinition
-     * @param runNumber       Number of the upstream build, or null if the upstream trigger is not a Run.
-     *                        This value will be passed as StringParameterDefinition.
-     * @param runDisplayName  Display Name of the upstream build, or null if the upstream trigger is not a Run.
-     *                        This value will be passed as StringParameterDefinition.
-     * @param jobsToBuild     List of Jobs to build
-     * @param sourceBranchName  Source Branch Name. Also this value will be passed as StringParameterDefinition
-     * @param targetBranchName  Target Branch Name. Also this value will be passed as StringParameterDefinition
-     *                          Applicable only for PR jobs
-     */
-    private void buildJobs(
-            String projectName,
-            String projectFullName,
-            Integer runNumber,
-            String runDisplayName,
-            List<Job> jobsToBuild, String sourceBranchName, String targetBranchName) {
-        List<ParameterValue> parameterValues = new ArrayList<>();
-        parameterValues.add(new StringParameterValue(PipelineTriggerProperty.projectNameParameterKey, projectName, "Set by MultiBranch Pipeline Plugin"));
-        parameterValues.add(new StringParameterValue(PipelineTriggerProperty.projectFullNameParameterKey, projectFullName, "Set by MultiBranch Pipeline Plugin"));
-        parameterValues.add(new StringParameterValue(PipelineTriggerProperty.sourceBranchName, sourceBranchName, "Set by MultiBranch Pipeline Plugin"));
-        parameterValues.add(new StringParameterValue(PipelineTriggerProperty.targetBranchName, targetBranchName, "Set by MultiBranch Pipeline Plugin"));
-        if (runNumber != null) {
-            parameterValues.add(new StringParameterValue(PipelineTriggerProperty.runNumberParameterKey, runNumber.toString(), "Set by MultiBranch Pipeline Plugin"));
-        }
-        if (runDisplayName != null) {
-            parameterValues.add(new StringParameterValue(PipelineTriggerProperty.runDisplayNameParameterKey, runDisplayName, "Set by MultiBranch Pipeline Plugin"));
-        }
-        for(AdditionalParameter additionalParameter : this.getAdditionalParameters()) {
-            parameterValues.add(new StringParameterValue(additionalParameter.getName(), additionalParameter.getValue(),"Set by MultiBranch Pipeline Plugin"));
-        }
-        ParametersAction parametersAction = new ParametersAction(parameterValues);
-        for (Job job : jobsToBuild) {
-            if (job instanceof AbstractProject) {
-                AbstractProject abstractProject = (AbstractProject) job;
-                abstractProject.scheduleBuild2(this.quitePeriod, parametersAction);
-            } else if (job instanceof WorkflowJob) {
-                WorkflowJob workflowJob = (WorkflowJob) job;
-                workflowJob.scheduleBuild2(this.quitePeriod, parametersAction);
-            }
+     * @param context    Branch event context. Its parameter values will be passed to the builds
+     * @param action     Event type, attached to the builds with a BranchEventAction which also correlates them with their TriggerOutcome
+     * @param run        Deleted Run, or null if the event is not a Run event
+     * @param actionJobs Resolved Jobs to build by their reference. Parameters of each reference are passed as well
+     */
+    private void buildJobs(BranchEventContext context, PipelineTriggerBuildAction action, Run<?, ?> run, Map<ActionJobReference, Job> actionJobs) {
+        for (Map.Entry<ActionJobReference, Job> actionJob : actionJobs.entrySet()) {
+            Job job = actionJob.getValue();
+            BranchEventAction branchEventAction = new BranchEventAction(context.getProjectFullName(), action,
+                    TriggerOutcomeStore.record(context.getProjectFullName(), action, job.getFullName(), context.getEventTime()),
+                    context.getEventTime());
+            Action parametersAction = this.isSkipParameterDefinitions()
+                    ? context.toEnvironmentAction(run, actionJob.getKey().getParameters())
+                    : context.toParametersAction(run, actionJob.getKey().getParameters());
+            if (this.isAdaptiveScheduling())
+                AdaptiveScheduler.get().schedule(job, this.quitePeriod, parametersAction, branchEventAction);
+            else
+                AdaptiveScheduler.scheduleNow(job, this.quitePeriod, parametersAction, branchEventAction);
         }
     }
 
+    /**
+     * Compute the branch level information of an event once, so it can be reused for all action jobs and Runs.
+     *
+     * @param workflowJob Branch Pipeline job
+     * @return BranchEventContext
+     */
+    BranchEventContext createBranchEventContext(WorkflowJob workflowJob) {
+        return this.createBranchEventContext(workflowJob.getName(), workflowJob.getFullName(), this.getPullRequestInfo(workflowJob));
+    }
+
+    /**
+     * @param projectName     Name of the branch Pipeline job
+     * @param projectFullName Full name of the branch Pipeline job
+     * @param pullRequestInfo Source and target branch names of the branch
+     * @return BranchEventContext
+     */
+    BranchEventContext createBranchEventContext(String projectName, String projectFullName, PullRequestInfo pullRequestInfo) {
+        return this.createBranchEventContext(projectName, projectFullName, pullRequestInfo, System.currentTimeMillis());
+    }
+
+    /**
+     * @param projectName     Name of the branch Pipeline job
+     * @param projectFullName Full name of the branch Pipeline job
+     * @param pullRequestInfo Source and target branch names of the branch
+     * @param eventTime       Time of the branch event. Contexts are created synchronously in the ItemListener callbacks,
+     *                        so the other variants use the current time
+     * @return BranchEventContext
+     */
+    BranchEventContext createBranchEventContext(String projectName, String projectFullName, PullRequestInfo pullRequestInfo, long eventTime) {
+        BranchFilter.Subject subject = BranchFilter.Subject.of(projectName, pullRequestInfo);
+        return new BranchEventContext(projectName, projectFullName, pullRequestInfo, subject,
+                this.getFilterVerdict(subject), this.getAdditionalParameters(), eventTime);
+    }
+
     private void triggerActionJobs(WorkflowJob workflowJob, Run<?, ?> run, PipelineTriggerBuildAction action) {
         if (!(workflowJob.getParent() instanceof WorkflowMultiBranchProject)) {
             LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Caller Job is not child of WorkflowMultiBranchProject. Skipping.");
             return;
         }
         WorkflowMultiBranchProject workflowMultiBranchProject = (WorkflowMultiBranchProject) workflowJob.getParent();
-        PipelineTriggerProperty pipelineTriggerProperty = workflowMultiBranchProject.getProperties().get(PipelineTriggerProperty.class);
-        PullRequestInfo pullRequestInfo = this.getPullRequestInfo(workflowJob);
+        PipelineTriggerProperty pipelineTriggerProperty = PipelineTriggerGlobalConfiguration.getEffectiveProperty(workflowMultiBranchProject);
         if (pipelineTriggerProperty != null) {
-            if (checkExcludeFilter(workflowJob.getName(), pipelineTriggerProperty)) {
-                LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] {0} excluded by the Exclude Filter", workflowJob.getName());
-            } else if (checkIncludeFilter(workflowJob.getName(), pipelineTriggerProperty)) {
-                if (action.equals(PipelineTriggerBuildAction.createPipelineAction))
-                    pipelineTriggerProperty.buildCreateActionJobs(workflowJob.getName(), workflowJob.getFullName(), pullRequestInfo.getSourceBranchName(), pullRequestInfo.getTargetBranchName());
-                else if (action.equals(PipelineTriggerBuildAction.deletePipelineAction))
-                    pipelineTriggerProperty.buildDeleteActionJobs(workflowJob.getName(), workflowJob.getFullName(), pullRequestInfo.getSourceBranchName(), pullRequestInfo.getTargetBranchName());
-                else if (action.equals(PipelineTriggerBuildAction.deleteRunPipelineAction))
-                    pipelineTriggerProperty.buildActionJobsOnRunDelete(workflowJob.getName(), workflowJob.getFullName(), run.getNumber(), run.getDisplayName(), pullRequestInfo.getSourceBranchName(), pullRequestInfo.getTargetBranchName());
-            } else {
-                LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] {0} not included by the Include Filter", workflowJob.getName());
+            BranchEventContext context = pipelineTriggerProperty.createBranchEventContext(workflowJob);
+            pipelineTriggerProperty.triggerActionJobs(context, run == null ? Collections.<Run<?, ?>>emptyList() : Collections.<Run<?, ?>>singletonList(run), action);
+        }
+    }
+
+    void triggerActionJobs(BranchEventContext context, List<? extends Run<?, ?>> runs, PipelineTriggerBuildAction action) {
+        if (context.getFilterVerdict() == BranchEventContext.FilterVerdict.EXCLUDED) {
+            LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] {0} excluded by the Exclude Filter", context.getProjectName());
+        } else if (context.isIncluded()) {
+            if (action.equals(PipelineTriggerBuildAction.createPipelineAction))
+                this.buildCreateActionJobs(context);
+            else if (action.equals(PipelineTriggerBuildAction.deletePipelineAction)) {
+                PendingCreatePolicy policy = this.getPendingCreatePolicy();
+                int cancelled = policy == PendingCreatePolicy.KEEP ? 0 : PendingCreateBuilds.get().cancel(context.getProjectFullName())
+                        + AdaptiveScheduler.get().cancel(context.getProjectFullName(), PipelineTriggerBuildAction.createPipelineAction);
+                if (cancelled > 0 && policy == PendingCreatePolicy.CANCEL_AND_SKIP_DELETE)
+                    LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] {0} deleted before {1} create action build(s) started, skipping delete actions",
+                            new Object[]{context.getProjectFullName(), cancelled});
+                else
+                    this.buildDeleteActionJobs(context);
             }
+            else if (action.equals(PipelineTriggerBuildAction.deleteRunPipelineAction))
+                this.buildActionJobsOnRunDelete(context, runs);
+            else if (action.equals(PipelineTriggerBuildAction.updatePipelineAction))
+                this.buildUpdateActionJobs(context);
+        } else {
+            LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] {0} not included by the Include Filter", context.getProjectName());
         }
     }
 
@@ -542,12 +895,51 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
         this.triggerActionJobs(workflowJob, null, PipelineTriggerBuildAction.createPipelineAction);
     }
 
+    public void triggerUpdateActionJobs(WorkflowJob workflowJob) {
+        this.triggerActionJobs(workflowJob, null, PipelineTriggerBuildAction.updatePipelineAction);
+    }
+
     public void triggerActionJobsOnRunDelete(WorkflowJob workflowJob, Run<?, ?> run) {
         this.triggerActionJobs(workflowJob, run, PipelineTriggerBuildAction.deleteRunPipelineAction);
     }
 
-    private enum PipelineTriggerBuildAction {
-        createPipelineAction, deletePipelineAction, deleteRunPipelineAction
+    /**
+     * What to do with create action builds of a branch which are still in the queue when the branch is deleted.
+     */
+    public enum PendingCreatePolicy {
+        KEEP("Keep them"),
+        CANCEL("Cancel them"),
+        CANCEL_AND_SKIP_DELETE("Cancel them and skip the delete actions if any was cancelled");
+
+        private final String displayName;
+
+        PendingCreatePolicy(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Event types which trigger action jobs.
+     */
+    public enum PipelineTriggerBuildAction {
+        createPipelineAction("Pipeline Create Event"),
+        deletePipelineAction("Pipeline Delete Event"),
+        deleteRunPipelineAction("Run Delete Event"),
+        updatePipelineAction("Pipeline Update Event");
+
+        private final String displayName;
+
+        PipelineTriggerBuildAction(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
     }
 
     public String getBranchIncludeFilter() {
@@ -557,6 +949,7 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
     @DataBoundSetter
     public void setBranchIncludeFilter(String branchIncludeFilter) {
         this.branchIncludeFilter = branchIncludeFilter;
+        this.invalidateFilters();
     }
 
     public String getBranchExcludeFilter() {
@@ -566,16 +959,100 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
     @DataBoundSetter
     public void setBranchExcludeFilter(String branchExcludeFilter) {
         this.branchExcludeFilter = branchExcludeFilter;
+        this.invalidateFilters();
+    }
+
+    /**
+     * Drop compiled filters and memoized verdicts. Called whenever the Include or Exclude Filter changes.
+     */
+    private void invalidateFilters() {
+        this.includeFilter = null;
+        this.excludeFilter = null;
+        this.filterVerdictCache = null;
+    }
+
+    /**
+     * Evaluate the Include and Exclude Filters for a branch.
+     * Verdicts are memoized in a bounded LRU cache which is dropped when the filters change.
+     * As long as both filters only look at names, the cache is keyed by the branch name alone.
+     *
+     * @param subject Branch to check
+     * @return Filter verdict
+     */
+    BranchEventContext.FilterVerdict getFilterVerdict(BranchFilter.Subject subject) {
+        BranchFilter include = this.getIncludeFilter();
+        BranchFilter exclude = this.getExcludeFilter();
+        BoundedLruCache<BranchFilter.Subject, BranchEventContext.FilterVerdict> cache = this.filterVerdictCache;
+        if (cache == null) {
+            // The startup warm-up has not reached this property yet, evaluate uncached instead of waiting for it
+            if (PipelineTriggerPropertyWarmUp.isRunning())
+                return evaluateFilters(include, exclude, subject);
+            cache = new BoundedLruCache<>(FILTER_VERDICT_CACHE_SIZE);
+            this.filterVerdictCache = cache;
+        }
+        BranchFilter.Subject key = include.isNameOnly() && exclude.isNameOnly() ? subject.nameOnly() : subject;
+        return cache.computeIfAbsent(key, k -> evaluateFilters(include, exclude, k));
+    }
+
+    private static BranchEventContext.FilterVerdict evaluateFilters(BranchFilter include, BranchFilter exclude, BranchFilter.Subject subject) {
+        if (exclude.matches(subject))
+            return BranchEventContext.FilterVerdict.EXCLUDED;
+        else if (include.matches(subject))
+            return BranchEventContext.FilterVerdict.INCLUDED;
+        else
+            return BranchEventContext.FilterVerdict.NOT_INCLUDED;
+    }
+
+    private BranchFilter getIncludeFilter() {
+        BranchFilter filter = this.includeFilter;
+        if (filter == null) {
+            filter = compileFilter(this.getBranchIncludeFilter(), false);
+            this.includeFilter = filter;
+        }
+        return filter;
     }
 
-    private boolean checkIncludeFilter(String projectName, PipelineTriggerProperty pipelineTriggerProperty) {
-        String wildcardDefinitions = pipelineTriggerProperty.getBranchIncludeFilter();
-        return Pattern.matches(convertToPattern(wildcardDefinitions), projectName);
+    private BranchFilter getExcludeFilter() {
+        BranchFilter filter = this.excludeFilter;
+        if (filter == null) {
+            filter = compileFilter(this.getBranchExcludeFilter(), true);
+            this.excludeFilter = filter;
+        }
+        return filter;
+    }
+
+    /**
+     * Compile the filters and conditions and create the filter verdict cache,
+     * so the first events after a restart do not have to.
+     */
+    void warmUpCaches() {
+        this.getIncludeFilter();
+        this.getExcludeFilter();
+        if (this.filterVerdictCache == null)
+            this.filterVerdictCache = new BoundedLruCache<>(FILTER_VERDICT_CACHE_SIZE);
+        this.getRuleTable();
+        for (PipelineTriggerBuildAction action : PipelineTriggerBuildAction.values()) {
+            for (ActionJobReference reference : this.getActionJobReferences(action))
+                reference.getCompiledCondition();
+        }
     }
 
-    private boolean checkExcludeFilter(String projectName, PipelineTriggerProperty pipelineTriggerProperty) {
-        String wildcardDefinitions = pipelineTriggerProperty.getBranchExcludeFilter();
-        return Pattern.matches(convertToPattern(wildcardDefinitions), projectName);
+    /**
+     * An invalid filter fails closed: an include filter matches no branch and an exclude filter matches every branch,
+     * so a typo never triggers action jobs for branches the filter was meant to keep out.
+     *
+     * @param definitions     Filter definition as entered in the field
+     * @param matchAllOnError true for an exclude filter, an invalid definition then matches every branch
+     * @return Compiled filter
+     */
+    static BranchFilter compileFilter(String definitions, boolean matchAllOnError) {
+        try {
+            return BranchFilter.compile(definitions);
+        } catch (IllegalArgumentException ex) {
+            LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Invalid filter definition ''{0}'', it will {1}: {2}",
+                    new Object[]{definitions, matchAllOnError ? "match every branch" : "not match any branch", ex.getMessage()});
+            return BranchFilter.compile(matchAllOnError ? "*" : "");
+        }
     }
 
     public static String convertToPattern(String wildcardDefinitions) {
@@ -609,6 +1086,100 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
             this.additionalParameters = additionalParameters;
     }
 
+    public PendingCreatePolicy getPendingCreatePolicy() {
+        return pendingCreatePolicy == null ? PendingCreatePolicy.KEEP : pendingCreatePolicy;
+    }
+
+    /**
+     * @param pendingCreatePolicy What to do with queued create action builds of a branch when the branch is deleted
+     */
+    @DataBoundSetter
+    public void setPendingCreatePolicy(PendingCreatePolicy pendingCreatePolicy) {
+        this.pendingCreatePolicy = pendingCreatePolicy;
+    }
+
+    public RunDeleteFilter getRunDeleteFilter() {
+        return runDeleteFilter;
+    }
+
+    /**
+     * @param runDeleteFilter Predicates a deleted Run must match to trigger the Run Delete Event jobs, or null for all Runs
+     */
+    @DataBoundSetter
+    public void setRunDeleteFilter(RunDeleteFilter runDeleteFilter) {
+        this.runDeleteFilter = runDeleteFilter;
+    }
+
+    public List<TriggerRule> getRules() {
+        return rules == null ? Collections.emptyList() : rules;
+    }
+
+    /**
+     * @param rules Trigger rules evaluated in addition to the job lists, each with its own branch filter and event types
+     */
+    @DataBoundSetter
+    public void setRules(List<TriggerRule> rules) {
+        this.rules = rules == null ? new ArrayList<>() : new ArrayList<>(rules);
+        this.ruleTable = null;
+    }
+
+    public List<PipelineTriggerHandler> getHandlers() {
+        return handlers == null ? Collections.emptyList() : handlers;
+    }
+
+    /**
+     * @param handlers In-process handlers notified of every event in addition to the action jobs
+     */
+    @DataBoundSetter
+    public void setHandlers(List<PipelineTriggerHandler> handlers) {
+        this.handlers = handlers == null ? new ArrayList<>() : new ArrayList<>(handlers);
+    }
+
+    public boolean isAdaptiveScheduling() {
+        return adaptiveScheduling;
+    }
+
+    /**
+     * If set, builds of action jobs whose label is saturated are held and released when capacity comes back,
+     * see {@link AdaptiveScheduler}.
+     *
+     * @param adaptiveScheduling true to schedule according to the load of the labels
+     */
+    @DataBoundSetter
+    public void setAdaptiveScheduling(boolean adaptiveScheduling) {
+        this.adaptiveScheduling = adaptiveScheduling;
+    }
+
+    public boolean isTriggerOnHeadEvents() {
+        return triggerOnHeadEvents;
+    }
+
+    /**
+     * Opt-in fast path. If set, create and delete actions are triggered as soon as an SCMHeadEvent for a branch
+     * is accepted, instead of when branch indexing creates or deletes the branch Pipeline job.
+     *
+     * @param triggerOnHeadEvents true to trigger on SCMHeadEvent(s)
+     */
+    @DataBoundSetter
+    public void setTriggerOnHeadEvents(boolean triggerOnHeadEvents) {
+        this.triggerOnHeadEvents = triggerOnHeadEvents;
+    }
+
+    public boolean isSkipParameterDefinitions() {
+        return skipParameterDefinitions;
+    }
+
+    /**
+     * No-definition mode. If set, parameter definitions of the action jobs are never changed,
+     * the values are passed to the builds as environment variables by a BranchEventEnvironmentAction instead.
+     *
+     * @param skipParameterDefinitions true to skip defining parameters in the action jobs
+     */
+    @DataBoundSetter
+    public void setSkipParameterDefinitions(boolean skipParameterDefinitions) {
+        this.skipParameterDefinitions = skipParameterDefinitions;
+    }
+
     @Extension
     public static class PipelineTriggerPropertyListener extends ItemListener{
         @Override
@@ -654,20 +1225,20 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
 
     public static PipelineTriggerProperty getPipelineTriggerPropertyFromItem(Item item) {
         WorkflowMultiBranchProject workflowMultiBranchProject = (WorkflowMultiBranchProject) item.getParent();
-        DescribableList<AbstractFolderProperty<?>, AbstractFolderPropertyDescriptor> properties = workflowMultiBranchProject.getProperties();
-        return properties.get(PipelineTriggerProperty.class);
+        return PipelineTriggerGlobalConfiguration.getEffectiveProperty(workflowMultiBranchProject);
     }
 
     public static PipelineTriggerProperty getPipelineTriggerPropertyFromItem(Run run) {
         WorkflowMultiBranchProject workflowMultiBranchProject = (WorkflowMultiBranchProject) run.getParent().getParent();
-        DescribableList<AbstractFolderProperty<?>, AbstractFolderPropertyDescriptor> properties = workflowMultiBranchProject.getProperties();
-        return properties.get(PipelineTriggerProperty.class);
+        return PipelineTriggerGlobalConfiguration.getEffectiveProperty(workflowMultiBranchProject);
     }
 
     public static void triggerPipelineTriggerPropertyFromParentForOnCreate(Item item){
         if (item instanceof WorkflowJob && item.getParent() instanceof WorkflowMultiBranchProject) {
             PipelineTriggerProperty pipelineTriggerProperty = getPipelineTriggerPropertyFromItem(item);
-            if(pipelineTriggerProperty != null)
+            if (HeadEventFastPath.get().consume(item.getFullName(), PipelineTriggerBuildAction.createPipelineAction))
+                LOGGER.fine(String.format("Create actions of Item:%s already triggered by an SCMHeadEvent", item.getFullName()));
+            else if(pipelineTriggerProperty != null)
                 pipelineTriggerProperty.triggerCreateActionJobs((WorkflowJob) item);
             else
                 LOGGER.fine(String.format("PipelineTriggerProperty is null in Item:%s", item.getFullName()));
@@ -680,12 +1251,12 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
     public static void triggerPipelineTriggerPropertyFromParentForOnDelete(Item item){
         if (item instanceof WorkflowJob && item.getParent() instanceof WorkflowMultiBranchProject) {
             PipelineTriggerProperty pipelineTriggerProperty = getPipelineTriggerPropertyFromItem(item);
-            if(pipelineTriggerProperty != null){
-                pipelineTriggerProperty.triggerDeleteActionJobs((WorkflowJob) item);
-                for (Run run : ((WorkflowJob) item).getBuilds()) {
-                    pipelineTriggerProperty.triggerActionJobsOnRunDelete((WorkflowJob) item, run);
-                }
-            }
+            // The guard is consumed even without a property, the next delete of the same name must not be skipped
+            boolean deleteTriggered = HeadEventFastPath.get().consume(item.getFullName(), PipelineTriggerBuildAction.deletePipelineAction);
+            if (deleteTriggered)
+                LOGGER.fine(String.format("Delete actions of Item:%s already triggered by an SCMHeadEvent", item.getFullName()));
+            if(pipelineTriggerProperty != null)
+                pipelineTriggerProperty.triggerDeleteEvent((WorkflowJob) item, deleteTriggered);
             else
                 LOGGER.fine(String.format("PipelineTriggerProperty is null in Item:%s", item.getFullName()));
         }
@@ -697,8 +1268,10 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
     public static void triggerPipelineTriggerPropertyFromParentForOnRunDelete(Run run){
         if (run.getParent() instanceof WorkflowJob && run.getParent().getParent() instanceof WorkflowMultiBranchProject) {
             PipelineTriggerProperty pipelineTriggerProperty = getPipelineTriggerPropertyFromItem(run);
-            if(pipelineTriggerProperty != null)
-                pipelineTriggerProperty.triggerActionJobsOnRunDelete((WorkflowJob) run.getParent(), run);
+            if(pipelineTriggerProperty != null) {
+                if (pipelineTriggerProperty.isRunDeleteTriggerActive())
+                    pipelineTriggerProperty.triggerActionJobsOnRunDelete((WorkflowJob) run.getParent(), run);
+            }
             else
                 LOGGER.fine(String.format("PipelineTriggerProperty is null in Item:%s", run.getParent().getFullName()));
         }
@@ -707,6 +1280,47 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
         }
     }
 
+    /**
+     * Trigger delete actions for a deleted branch Pipeline job, and Run delete actions for its Runs.
+     * Branch level information is computed once and shared by the delete event and all Run delete events.
+     *
+     * @param workflowJob     Deleted branch Pipeline job
+     * @param deleteTriggered true if the delete actions were already triggered by an SCMHeadEvent, only Run delete actions are triggered then
+     */
+    void triggerDeleteEvent(WorkflowJob workflowJob, boolean deleteTriggered) {
+        BranchEventContext context = this.createBranchEventContext(workflowJob);
+        if (!deleteTriggered)
+            this.triggerActionJobs(context, Collections.emptyList(), PipelineTriggerBuildAction.deletePipelineAction);
+        if (this.isRunDeleteTriggerActive()) {
+            if (context.isIncluded())
+                this.triggerActionJobs(context, workflowJob.getBuilds(), PipelineTriggerBuildAction.deleteRunPipelineAction);
+        }
+        else
+            LOGGER.fine(String.format("No Run Delete Event jobs or handlers defined, skipping runs of Item:%s", workflowJob.getFullName()));
+    }
+
+    /**
+     * Trigger the Pipeline Update Event if the head revision of a started branch build differs from the last seen one.
+     * Builds of the same revision as the previous build, e.g. replays or manual builds, are dropped before any job is resolved.
+     *
+     * @param run Started Run
+     */
+    public static void triggerPipelineTriggerPropertyFromParentForOnUpdate(Run run){
+        if (run.getParent() instanceof WorkflowJob && run.getParent().getParent() instanceof WorkflowMultiBranchProject) {
+            SCMRevisionAction revisionAction = run.getAction(SCMRevisionAction.class);
+            if (revisionAction == null)
+                return;
+            PipelineTriggerProperty pipelineTriggerProperty = getPipelineTriggerPropertyFromItem(run);
+            if (pipelineTriggerProperty == null || (pipelineTriggerProperty.getActionJobReferences(PipelineTriggerBuildAction.updatePipelineAction).isEmpty()
+                    && !pipelineTriggerProperty.hasHandlers(PipelineTriggerBuildAction.updatePipelineAction)))
+                return;
+            if (HeadRevisionTracker.get().advance(run.getParent().getFullName(), revisionAction.getRevision(), run))
+                pipelineTriggerProperty.triggerUpdateActionJobs((WorkflowJob) run.getParent());
+            else
+                LOGGER.fine(String.format("Head revision of Item:%s did not change", run.getParent().getFullName()));
+        }
+    }
+
     /**
      * Get Pull Request related information from workflow job.
      * @param workflowJob Indexed job
@@ -718,13 +1332,29 @@ public class PipelineTriggerProperty extends AbstractFolderProperty<MultiBranchP
             LOGGER.fine("BranchJobProperty not found. Returning empty PullRequestInfo");
             return new PullRequestInfo("","");
         }
-        Branch branch = branchJobProperty.getBranch();
-        SCMHead scmHead = branch.getHead();
+        return getPullRequestInfo(branchJobProperty.getBranch().getHead());
+    }
+
+    /**
+     * Get Pull Request related information from the head of a branch.
+     * @param scmHead Head of the branch
+     * @return PullRequestInfo
+     */
+    static PullRequestInfo getPullRequestInfo(SCMHead scmHead) {
+        boolean fork = !SCMHeadOrigin.DEFAULT.equals(scmHead.getOrigin());
         if( scmHead instanceof ChangeRequestSCMHead2) {
-            ChangeRequestSCMHead2 changeRequestSCMHead2 = (ChangeRequestSCMHead2) branch.getHead();
+            ChangeRequestSCMHead2 changeRequestSCMHead2 = (ChangeRequestSCMHead2) scmHead;
             String sourceBranchName = changeRequestSCMHead2.getOriginName();
             String targetBranchName = changeRequestSCMHead2.getTarget().getName();
-            return new PullRequestInfo(sourceBranchName, targetBranchName);
+            return new PullRequestInfo(sourceBranchName, targetBranchName, PullRequestInfo.HeadCategory.PULL_REQUEST, fork);
+        }
+        else if (scmHead instanceof ChangeRequestSCMHead)
+        {
+            return new PullRequestInfo(scmHead.getName(), ((ChangeRequestSCMHead) scmHead).getTarget().getName(), PullRequestInfo.HeadCategory.PULL_REQUEST, fork);
+        }
+        else if (scmHead instanceof TagSCMHead)
+        {
+            return new PullRequestInfo(scmHead.getName(), "", PullRequestInfo.HeadCategory.TAG, false);
         }
         else
         {
@@ -0,0 +1,71 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Warms the caches of all PipelineTriggerProperty instances and the job indexes once all jobs are loaded,
+ * in parallel on a dedicated fork-join pool. Startup is not delayed: the warm-up runs in the background,
+ * and until it is finished the trigger path evaluates without the caches instead of waiting for them.
+ */
+public final class PipelineTriggerPropertyWarmUp {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineTriggerPropertyWarmUp.class.getName());
+    private static final int PARALLELISM = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".warmUpParallelism",
+            Runtime.getRuntime().availableProcessors());
+    private static volatile boolean running;
+
+    private PipelineTriggerPropertyWarmUp() {
+    }
+
+    /**
+     * @return true while the startup warm-up is in progress
+     */
+    static boolean isRunning() {
+        return running;
+    }
+
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void warmUp() {
+        running = true;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, PARALLELISM));
+        pool.execute(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                List<PipelineTriggerProperty> properties = new ArrayList<>();
+                try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+                    for (AbstractFolder<?> folder : Jenkins.get().allItems(AbstractFolder.class)) {
+                        PipelineTriggerProperty property = folder.getProperties().get(PipelineTriggerProperty.class);
+                        if (property != null)
+                            properties.add(property);
+                    }
+                }
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                tasks.add(ForkJoinTask.adapt(() -> JobNameIndex.get().ensureBuilt()));
+                tasks.add(ForkJoinTask.adapt(() -> ActionJobReferenceIndex.get().ensureBuilt()));
+                for (PipelineTriggerProperty property : properties)
+                    tasks.add(ForkJoinTask.adapt(property::warmUpCaches));
+                ForkJoinTask.invokeAll(tasks);
+                LOGGER.log(Level.INFO, "[MultiBranch Action Triggers Plugin] Warmed up {0} properties in {1} ms",
+                        new Object[]{properties.size(), System.currentTimeMillis() - start});
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Warm-up failed, caches will be filled on first use.", ex);
+            } finally {
+                running = false;
+                pool.shutdown();
+            }
+        });
+    }
+}
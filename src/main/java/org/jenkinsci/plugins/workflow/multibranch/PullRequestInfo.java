@@ -1,14 +1,31 @@
 package org.jenkinsci.plugins.workflow.multibranch;
 /**
  * Class for storing Pull Request source and target branch names
+ * together with the kind of SCMHead they were read from.
  */
 public class PullRequestInfo {
+
+    /**
+     * Kind of the SCMHead behind a branch Pipeline.
+     */
+    public enum HeadCategory {
+        BRANCH, PULL_REQUEST, TAG
+    }
+
     private String sourceBranchName;
     private String targetBranchName;
+    private HeadCategory headCategory;
+    private boolean fork;
 
     public PullRequestInfo(String sourceBranchName, String targetBranchName) {
+        this(sourceBranchName, targetBranchName, HeadCategory.BRANCH, false);
+    }
+
+    public PullRequestInfo(String sourceBranchName, String targetBranchName, HeadCategory headCategory, boolean fork) {
         this.sourceBranchName = sourceBranchName;
         this.targetBranchName = targetBranchName;
+        this.headCategory = headCategory;
+        this.fork = fork;
     }
 
     public String getSourceBranchName() {
@@ -18,4 +35,12 @@ public class PullRequestInfo {
     public String getTargetBranchName() {
         return targetBranchName;
     }
+
+    public HeadCategory getHeadCategory() {
+        return headCategory;
+    }
+
+    public boolean isFork() {
+        return fork;
+    }
 }
@@ -0,0 +1,213 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Action;
+import hudson.model.Descriptor;
+import hudson.model.ParameterValue;
+import hudson.model.ParametersAction;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.util.FormValidation;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Predicates a deleted Run must match to trigger the Run Delete Event jobs.
+ * All defined predicates must match, empty ones are ignored. They are evaluated against the Run metadata
+ * (result, start time, actions and parameters) in order of cost, the build log is never read.
+ */
+public class RunDeleteFilter extends AbstractDescribableImpl<RunDeleteFilter> {
+
+    private static final Logger LOGGER = Logger.getLogger(RunDeleteFilter.class.getName());
+
+    private String results = "";
+    private int maxAgeDays;
+    private String markerAction = "";
+    private String parameterName = "";
+    private String parameterValue = "";
+    private boolean requireArtifacts;
+    private transient volatile List<Result> parsedResults;
+
+    @DataBoundConstructor
+    public RunDeleteFilter() {
+    }
+
+    public String getResults() {
+        return results;
+    }
+
+    /**
+     * @param results Results in comma separated format, e.g. SUCCESS,UNSTABLE. Empty matches any result
+     */
+    @DataBoundSetter
+    public void setResults(String results) {
+        this.results = Util.fixNull(results).trim();
+        this.parsedResults = null;
+    }
+
+    public int getMaxAgeDays() {
+        return maxAgeDays;
+    }
+
+    /**
+     * @param maxAgeDays Only Runs started within this many days match. 0 matches any age
+     */
+    @DataBoundSetter
+    public void setMaxAgeDays(int maxAgeDays) {
+        this.maxAgeDays = Math.max(0, maxAgeDays);
+    }
+
+    public String getMarkerAction() {
+        return markerAction;
+    }
+
+    /**
+     * @param markerAction Class name (simple or fully qualified) of an Action the Run must have. Empty matches any Run
+     */
+    @DataBoundSetter
+    public void setMarkerAction(String markerAction) {
+        this.markerAction = Util.fixNull(markerAction).trim();
+    }
+
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    /**
+     * @param parameterName Name of a build parameter the Run must have. Empty matches any Run
+     */
+    @DataBoundSetter
+    public void setParameterName(String parameterName) {
+        this.parameterName = Util.fixNull(parameterName).trim();
+    }
+
+    public String getParameterValue() {
+        return parameterValue;
+    }
+
+    /**
+     * @param parameterValue Value of @parameterName. Empty matches any value
+     */
+    @DataBoundSetter
+    public void setParameterValue(String parameterValue) {
+        this.parameterValue = Util.fixNull(parameterValue);
+    }
+
+    public boolean isRequireArtifacts() {
+        return requireArtifacts;
+    }
+
+    /**
+     * @param requireArtifacts If only Runs which archived artifacts match
+     */
+    @DataBoundSetter
+    public void setRequireArtifacts(boolean requireArtifacts) {
+        this.requireArtifacts = requireArtifacts;
+    }
+
+    protected Object readResolve() {
+        this.setResults(this.results);
+        this.setMarkerAction(this.markerAction);
+        this.setParameterName(this.parameterName);
+        this.setParameterValue(this.parameterValue);
+        return this;
+    }
+
+    /**
+     * @param run Deleted Run
+     * @return true if the Run matches all defined predicates
+     */
+    public boolean matches(Run<?, ?> run) {
+        // Checked against the field, a value of unknown results only matches no Run
+        if (!results.isEmpty() && !this.getParsedResults().contains(run.getResult()))
+            return false;
+        if (maxAgeDays > 0 && System.currentTimeMillis() - run.getStartTimeInMillis() > TimeUnit.DAYS.toMillis(maxAgeDays))
+            return false;
+        if (!markerAction.isEmpty() && !this.hasMarkerAction(run))
+            return false;
+        if (!parameterName.isEmpty() && !this.hasParameter(run))
+            return false;
+        // Lists the artifacts of the Run, so it is checked last
+        return !requireArtifacts || run.getHasArtifacts();
+    }
+
+    private List<Result> getParsedResults() {
+        List<Result> parsed = this.parsedResults;
+        if (parsed == null) {
+            parsed = new ArrayList<>();
+            StringTokenizer tokenizer = new StringTokenizer(this.results, ", ");
+            while (tokenizer.hasMoreTokens()) {
+                String token = tokenizer.nextToken();
+                Result result = parseResult(token);
+                if (result != null)
+                    parsed.add(result);
+                else
+                    LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Ignoring unknown result ''{0}'' in Run Delete Filter", token);
+            }
+            this.parsedResults = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * Result.fromString maps unknown names to FAILURE, so the name is checked as well.
+     *
+     * @param name Result name, case insensitive
+     * @return Result or null if @name is not a known result
+     */
+    static Result parseResult(String name) {
+        Result result = Result.fromString(name);
+        return result.toString().equals(name.toUpperCase(Locale.ROOT)) ? result : null;
+    }
+
+    private boolean hasMarkerAction(Run<?, ?> run) {
+        for (Action action : run.getAllActions()) {
+            for (Class<?> type = action.getClass(); type != null; type = type.getSuperclass()) {
+                if (type.getName().equals(markerAction) || type.getSimpleName().equals(markerAction))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasParameter(Run<?, ?> run) {
+        ParametersAction parametersAction = run.getAction(ParametersAction.class);
+        ParameterValue value = parametersAction == null ? null : parametersAction.getParameter(parameterName);
+        if (value == null)
+            return false;
+        return parameterValue.isEmpty() || Objects.equals(parameterValue, String.valueOf(value.getValue()));
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<RunDeleteFilter> {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Run Delete Filter";
+        }
+
+        public FormValidation doCheckResults(@QueryParameter String value) {
+            StringTokenizer tokenizer = new StringTokenizer(Util.fixNull(value), ", ");
+            while (tokenizer.hasMoreTokens()) {
+                String result = tokenizer.nextToken();
+                if (parseResult(result) == null)
+                    return FormValidation.error("Unknown result: " + result);
+            }
+            return FormValidation.ok();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.Api;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Queue;
+import hudson.model.RootAction;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import hudson.model.queue.QueueListener;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.StaplerResponse;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency from branch events to the start of the action job builds they triggered, per action job.
+ * The event time is carried on the queue item and the build by their BranchEventAction. When a build starts,
+ * its queue wait (queue entry to start) and start latency (branch event to start) are recorded in histograms.
+ * Exported at {@code actionTriggerMetrics/api/json} and in Prometheus text format at {@code actionTriggerMetrics/prometheus}.
+ * Histograms are kept in memory since the last restart; only jobs visible to the current user are listed.
+ */
+@Extension
+@ExportedBean
+public class TriggerLatencyMetrics implements RootAction {
+
+    private final Map<String, JobLatency> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, Long> queuedSince = new ConcurrentHashMap<>();
+
+    public static TriggerLatencyMetrics get() {
+        return ExtensionList.lookupSingleton(TriggerLatencyMetrics.class);
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Action Trigger Metrics";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "actionTriggerMetrics";
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    /**
+     * @return Latencies of the action jobs visible to the current user, by job full name
+     */
+    @Exported(inline = true)
+    public List<JobLatency> getJobs() {
+        List<JobLatency> visible = new ArrayList<>();
+        for (JobLatency latency : new TreeMap<>(jobs).values()) {
+            if (Jenkins.get().getItemByFullName(latency.getJobFullName(), Job.class) != null)
+                visible.add(latency);
+        }
+        return visible;
+    }
+
+    JobLatency getJobLatency(String jobFullName) {
+        return jobs.get(jobFullName);
+    }
+
+    /**
+     * Histograms in Prometheus text exposition format.
+     */
+    public void doPrometheus(StaplerResponse rsp) throws IOException {
+        rsp.setContentType("text/plain; version=0.0.4; charset=UTF-8");
+        List<JobLatency> visible = this.getJobs();
+        PrintWriter writer = rsp.getWriter();
+        writePrometheus(writer, "multibranch_action_trigger_queue_wait_seconds", visible, true);
+        writePrometheus(writer, "multibranch_action_trigger_start_latency_seconds", visible, false);
+        writer.flush();
+    }
+
+    private static void writePrometheus(PrintWriter writer, String name, List<JobLatency> latencies, boolean queueWait) {
+        writer.println("# TYPE " + name + " histogram");
+        for (JobLatency latency : latencies) {
+            LatencyHistogram histogram = queueWait ? latency.getQueueWait() : latency.getStartLatency();
+            String job = "job=\"" + latency.getJobFullName().replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+            long[] bounds = histogram.getBucketBoundsMillis();
+            long[] counts = histogram.getBucketCounts();
+            for (int i = 0; i < counts.length; i++) {
+                String le = i < bounds.length ? String.format(Locale.ROOT, "%.1f", bounds[i] / 1000.0) : "+Inf";
+                writer.println(name + "_bucket{" + job + ",le=\"" + le + "\"} " + counts[i]);
+            }
+            writer.println(name + "_sum{" + job + "} " + String.format(Locale.ROOT, "%.3f", histogram.getSumMillis() / 1000.0));
+            writer.println(name + "_count{" + job + "} " + histogram.getCount());
+        }
+    }
+
+    private void started(Run<?, ?> run, BranchEventAction action) {
+        Long since = queuedSince.remove(run.getQueueId());
+        if (since == null && action.getEventTime() == 0)
+            return;
+        JobLatency latency = jobs.computeIfAbsent(run.getParent().getFullName(), JobLatency::new);
+        long start = run.getStartTimeInMillis();
+        if (since != null)
+            latency.getQueueWait().record(start - since);
+        if (action.getEventTime() != 0)
+            latency.getStartLatency().record(start - action.getEventTime());
+    }
+
+    /**
+     * Latency histograms of one action job.
+     */
+    @ExportedBean(defaultVisibility = 2)
+    public static final class JobLatency {
+        private final String jobFullName;
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram startLatency = new LatencyHistogram();
+
+        JobLatency(String jobFullName) {
+            this.jobFullName = jobFullName;
+        }
+
+        @Exported
+        public String getJobFullName() {
+            return jobFullName;
+        }
+
+        /**
+         * @return Time from entering the queue to the start of the build
+         */
+        @Exported
+        public LatencyHistogram getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * @return Time from the branch event to the start of the build
+         */
+        @Exported
+        public LatencyHistogram getStartLatency() {
+            return startLatency;
+        }
+    }
+
+    @Extension
+    public static class QueueListenerImpl extends QueueListener {
+        @Override
+        public void onLeft(Queue.LeftItem li) {
+            if (!li.isCancelled() && li.getAction(BranchEventAction.class) != null)
+                get().queuedSince.put(li.getId(), li.getInQueueSince());
+        }
+    }
+
+    @Extension
+    public static class RunListenerImpl extends RunListener<Run<?, ?>> {
+        @Override
+        public void onStarted(Run<?, ?> run, TaskListener listener) {
+            BranchEventAction action = run.getAction(BranchEventAction.class);
+            if (action != null)
+                get().started(run, action);
+        }
+    }
+
+    /**
+     * Follow renamed action jobs and forget deleted ones.
+     */
+    @Extension
+    public static class ItemListenerImpl extends ItemListener {
+        @Override
+        public void onDeleted(Item item) {
+            get().jobs.remove(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            Map<String, JobLatency> jobs = get().jobs;
+            JobLatency latency = jobs.remove(oldFullName);
+            if (latency != null) {
+                JobLatency moved = new JobLatency(newFullName);
+                moved.queueWait.merge(latency.queueWait);
+                moved.startLatency.merge(latency.startLatency);
+                jobs.put(newFullName, moved);
+            }
+        }
+    }
+}
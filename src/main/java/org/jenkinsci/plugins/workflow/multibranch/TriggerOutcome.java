@@ -0,0 +1,162 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Outcome of scheduling one action job build for a branch event, see {@link TriggerOutcomeStore}.
+ */
+@ExportedBean(defaultVisibility = 2)
+public class TriggerOutcome {
+
+    /**
+     * State of the triggered build.
+     */
+    public enum Status {
+        /** scheduleBuild2 was called, the item did not enter the queue yet. */
+        TRIGGERED,
+        /** Held by AdaptiveScheduler until its label has capacity. */
+        HELD,
+        /** In the queue. */
+        QUEUED,
+        /** Folded into an equal item already in the queue, no build of its own. */
+        MERGED,
+        /** Not accepted by the queue, e.g. the job is disabled. */
+        REFUSED,
+        /** Cancelled before it started. */
+        CANCELLED,
+        STARTED,
+        COMPLETED
+    }
+
+    private final long id;
+    private final String branchFullName;
+    private final PipelineTriggerProperty.PipelineTriggerBuildAction event;
+    private final String jobFullName;
+    private final long eventTime;
+    private Status status = Status.TRIGGERED;
+    private long queueId;
+    private int buildNumber;
+    private String result;
+    private long startTime;
+    private long endTime;
+
+    TriggerOutcome(long id, String branchFullName, PipelineTriggerProperty.PipelineTriggerBuildAction event, String jobFullName, long eventTime) {
+        this.id = id;
+        this.branchFullName = branchFullName;
+        this.event = event;
+        this.jobFullName = jobFullName;
+        this.eventTime = eventTime;
+    }
+
+    @Exported
+    public long getId() {
+        return id;
+    }
+
+    @Exported
+    public String getBranchFullName() {
+        return branchFullName;
+    }
+
+    @Exported
+    public String getEvent() {
+        return event.name();
+    }
+
+    public String getEventDisplayName() {
+        return event.getDisplayName();
+    }
+
+    @Exported
+    public String getJobFullName() {
+        return jobFullName;
+    }
+
+    /**
+     * @return Time of the branch event, in milliseconds since the epoch
+     */
+    @Exported
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    @Exported
+    public Status getStatus() {
+        return status;
+    }
+
+    void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /**
+     * @return Id of the queue item, 0 if the build did not enter the queue
+     */
+    @Exported
+    public long getQueueId() {
+        return queueId;
+    }
+
+    void setQueueId(long queueId) {
+        this.queueId = queueId;
+    }
+
+    /**
+     * @return Number of the build, 0 if it did not start
+     */
+    @Exported
+    public int getBuildNumber() {
+        return buildNumber;
+    }
+
+    void setBuildNumber(int buildNumber) {
+        this.buildNumber = buildNumber;
+    }
+
+    /**
+     * @return Result of the completed build, or null
+     */
+    @Exported
+    public String getResult() {
+        return result;
+    }
+
+    void setResult(String result) {
+        this.result = result;
+    }
+
+    @Exported
+    public long getStartTime() {
+        return startTime;
+    }
+
+    void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    @Exported
+    public long getEndTime() {
+        return endTime;
+    }
+
+    void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    /**
+     * @return Milliseconds from the branch event to the start of the build, -1 if it did not start
+     */
+    @Exported
+    public long getStartLatency() {
+        return startTime == 0 ? -1 : startTime - eventTime;
+    }
+
+    /**
+     * @return Milliseconds from the branch event to the end of the build, -1 if it did not complete
+     */
+    @Exported
+    public long getEndToEndLatency() {
+        return endTime == 0 || status != Status.COMPLETED ? -1 : endTime - eventTime;
+    }
+}
@@ -0,0 +1,281 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.cloudbees.hudson.plugins.folder.AbstractFolder;
+import hudson.BulkChange;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.XmlFile;
+import hudson.model.Action;
+import hudson.model.Item;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.Saveable;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.model.queue.QueueListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compact per-folder store of the outcomes of the action job builds triggered by the folder's branch events:
+ * queue item id, build number, result and latencies. Keeps the last {@code .outcomeHistorySize} (default 100)
+ * outcomes in {@code action-trigger-outcomes.xml} of the folder. Saves are coalesced, so a burst of events
+ * writes the file once.
+ * Outcomes are correlated with queue items and builds by the id carried in their BranchEventAction.
+ */
+public final class TriggerOutcomeStore implements Saveable {
+
+    private static final Logger LOGGER = Logger.getLogger(TriggerOutcomeStore.class.getName());
+    private static final int HISTORY_SIZE = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".outcomeHistorySize", 100);
+    private static final long SAVE_DELAY_SECONDS = 5;
+    private static final String FILE_NAME = "action-trigger-outcomes.xml";
+
+    private final ArrayDeque<TriggerOutcome> outcomes = new ArrayDeque<>();
+    private long lastId;
+    private transient File file;
+    private transient boolean saveScheduled;
+
+    private TriggerOutcomeStore(File file) {
+        this.file = file;
+    }
+
+    /**
+     * @param folderFullName Full name of a multibranch project
+     * @return Store of the folder, or null if there is no such folder
+     */
+    @CheckForNull
+    static TriggerOutcomeStore get(String folderFullName) {
+        TriggerOutcomeStore store = getStores().get(folderFullName);
+        if (store != null)
+            return store;
+        AbstractFolder<?> folder;
+        try (ACLContext ignored = ACL.as2(ACL.SYSTEM2)) {
+            folder = Jenkins.get().getItemByFullName(folderFullName, AbstractFolder.class);
+        }
+        return folder == null ? null : get(folder);
+    }
+
+    @Nonnull
+    static TriggerOutcomeStore get(AbstractFolder<?> folder) {
+        return getStores().computeIfAbsent(folder.getFullName(), k -> load(new File(folder.getRootDir(), FILE_NAME)));
+    }
+
+    /**
+     * @return true if the folder has recorded outcomes, without loading them
+     */
+    static boolean exists(AbstractFolder<?> folder) {
+        return getStores().containsKey(folder.getFullName()) || new File(folder.getRootDir(), FILE_NAME).isFile();
+    }
+
+    private static Map<String, TriggerOutcomeStore> getStores() {
+        return ExtensionList.lookupSingleton(ItemListenerImpl.class).stores;
+    }
+
+    private static TriggerOutcomeStore load(File file) {
+        TriggerOutcomeStore store = new TriggerOutcomeStore(file);
+        XmlFile xmlFile = store.getConfigFile();
+        if (xmlFile.exists()) {
+            try {
+                xmlFile.unmarshal(store);
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not load " + file, ex);
+            }
+        }
+        return store;
+    }
+
+    private XmlFile getConfigFile() {
+        return new XmlFile(Jenkins.XSTREAM2, file);
+    }
+
+    /**
+     * Record a build about to be scheduled for a branch event.
+     *
+     * @param branchFullName Full name of the branch Pipeline job of the event
+     * @param event          Event type
+     * @param jobFullName    Full name of the action job
+     * @param eventTime      Time of the branch event, in milliseconds since the epoch
+     * @return Id of the outcome, to be passed to the BranchEventAction of the build. 0 if the folder does not exist
+     */
+    static long record(String branchFullName, PipelineTriggerProperty.PipelineTriggerBuildAction event, String jobFullName, long eventTime) {
+        int slash = branchFullName.lastIndexOf('/');
+        TriggerOutcomeStore store = slash < 0 ? null : get(branchFullName.substring(0, slash));
+        if (store == null)
+            return 0;
+        long id;
+        synchronized (store) {
+            id = ++store.lastId;
+            store.outcomes.addFirst(new TriggerOutcome(id, branchFullName, event, jobFullName, eventTime));
+            while (store.outcomes.size() > HISTORY_SIZE)
+                store.outcomes.removeLast();
+        }
+        store.scheduleSave();
+        return id;
+    }
+
+    /**
+     * Update the outcome of the build carrying @action, if it is still recorded.
+     *
+     * @param action BranchEventAction of the queue item or build
+     * @param update Change to apply
+     */
+    static void update(@CheckForNull BranchEventAction action, Consumer<TriggerOutcome> update) {
+        if (action == null || action.getOutcomeId() == 0)
+            return;
+        TriggerOutcomeStore store = getStores().get(action.getFolderFullName());
+        if (store == null)
+            store = get(action.getFolderFullName());
+        if (store == null)
+            return;
+        synchronized (store) {
+            TriggerOutcome outcome = store.find(action.getOutcomeId());
+            if (outcome == null)
+                return;
+            update.accept(outcome);
+        }
+        store.scheduleSave();
+    }
+
+    /**
+     * @param actions Actions of a build, one of them may be a BranchEventAction
+     * @param update  Change to apply to its outcome
+     */
+    static void update(Action[] actions, Consumer<TriggerOutcome> update) {
+        for (Action action : actions) {
+            if (action instanceof BranchEventAction)
+                update((BranchEventAction) action, update);
+        }
+    }
+
+    private TriggerOutcome find(long id) {
+        // Newest first, and updates mostly concern recent outcomes
+        for (TriggerOutcome outcome : outcomes) {
+            if (outcome.getId() == id)
+                return outcome;
+            if (outcome.getId() < id)
+                break;
+        }
+        return null;
+    }
+
+    /**
+     * @return Outcomes, newest first
+     */
+    public synchronized List<TriggerOutcome> getOutcomes() {
+        return Collections.unmodifiableList(new ArrayList<>(outcomes));
+    }
+
+    private synchronized void scheduleSave() {
+        if (saveScheduled)
+            return;
+        saveScheduled = true;
+        Timer.get().schedule(() -> {
+            synchronized (this) {
+                saveScheduled = false;
+            }
+            try {
+                this.save();
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not save " + file, ex);
+            }
+        }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void save() throws IOException {
+        if (BulkChange.contains(this) || !file.getParentFile().isDirectory())
+            return;
+        this.getConfigFile().write(this);
+        SaveableListener.fireOnChange(this, this.getConfigFile());
+    }
+
+    @Extension
+    public static class QueueListenerImpl extends QueueListener {
+        @Override
+        public void onEnterWaiting(Queue.WaitingItem wi) {
+            update(wi.getAction(BranchEventAction.class), outcome -> {
+                outcome.setQueueId(wi.getId());
+                outcome.setStatus(TriggerOutcome.Status.QUEUED);
+            });
+        }
+
+        @Override
+        public void onLeft(Queue.LeftItem li) {
+            if (li.isCancelled())
+                update(li.getAction(BranchEventAction.class), outcome -> {
+                    outcome.setStatus(TriggerOutcome.Status.CANCELLED);
+                    outcome.setEndTime(System.currentTimeMillis());
+                });
+        }
+    }
+
+    @Extension
+    public static class RunListenerImpl extends RunListener<Run<?, ?>> {
+        @Override
+        public void onStarted(Run<?, ?> run, TaskListener listener) {
+            update(run.getAction(BranchEventAction.class), outcome -> {
+                outcome.setBuildNumber(run.getNumber());
+                outcome.setStatus(TriggerOutcome.Status.STARTED);
+                outcome.setStartTime(run.getStartTimeInMillis());
+            });
+        }
+
+        @Override
+        public void onCompleted(Run<?, ?> run, @Nonnull TaskListener listener) {
+            update(run.getAction(BranchEventAction.class), outcome -> {
+                outcome.setStatus(TriggerOutcome.Status.COMPLETED);
+                outcome.setResult(String.valueOf(run.getResult()));
+                outcome.setEndTime(System.currentTimeMillis());
+            });
+        }
+    }
+
+    /**
+     * Holds the loaded stores of this Jenkins instance by folder full name.
+     * Forgets the store of a deleted or moved folder, a moved folder loads it again from its new location.
+     */
+    @Extension
+    public static class ItemListenerImpl extends ItemListener {
+
+        private final Map<String, TriggerOutcomeStore> stores = new ConcurrentHashMap<>();
+
+        @Override
+        public void onDeleted(Item item) {
+            this.forget(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            this.forget(oldFullName);
+        }
+
+        private void forget(String fullName) {
+            for (Iterator<String> iterator = stores.keySet().iterator(); iterator.hasNext(); ) {
+                String folderFullName = iterator.next();
+                if (folderFullName.equals(fullName) || folderFullName.startsWith(fullName + "/"))
+                    iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Api;
+import hudson.model.Job;
+import jenkins.branch.MultiBranchProject;
+import jenkins.model.Jenkins;
+import jenkins.model.TransientActionFactory;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists the recorded outcomes of the action job builds triggered by the branch events of a multibranch project,
+ * see {@link TriggerOutcomeStore}. Available on the project page once an outcome was recorded,
+ * and as REST endpoint at {@code job/<name>/actionTriggerOutcomes/api/json}.
+ */
+@ExportedBean
+public class TriggerOutcomesAction implements Action {
+
+    private final MultiBranchProject<?, ?> project;
+
+    public TriggerOutcomesAction(MultiBranchProject<?, ?> project) {
+        this.project = project;
+    }
+
+    public MultiBranchProject<?, ?> getProject() {
+        return project;
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "notepad.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Action Trigger Outcomes";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "actionTriggerOutcomes";
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    /**
+     * @return Recorded outcomes of the action jobs the current user can read, newest first
+     */
+    @Exported(inline = true)
+    public List<TriggerOutcome> getOutcomes() {
+        Map<String, Boolean> readable = new HashMap<>();
+        List<TriggerOutcome> visible = new ArrayList<>();
+        for (TriggerOutcome outcome : TriggerOutcomeStore.get(project).getOutcomes()) {
+            if (readable.computeIfAbsent(outcome.getJobFullName(), name -> Jenkins.get().getItemByFullName(name, Job.class) != null))
+                visible.add(outcome);
+        }
+        return visible;
+    }
+
+    @Extension
+    public static class Factory extends TransientActionFactory<MultiBranchProject> {
+
+        @Override
+        public Class<MultiBranchProject> type() {
+            return MultiBranchProject.class;
+        }
+
+        @Nonnull
+        @Override
+        public Collection<? extends Action> createFor(@Nonnull MultiBranchProject target) {
+            if (!TriggerOutcomeStore.exists(target))
+                return Collections.emptyList();
+            return Collections.singletonList(new TriggerOutcomesAction(target));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Trigger rule of a PipelineTriggerProperty: the jobs to trigger for the selected event types
+ * when the branch matches @branchFilter (same syntax as the Include Filter, empty matches any branch).
+ * Rules are evaluated in addition to the job lists of the property, see {@link TriggerRuleTable}.
+ */
+public class TriggerRule extends AbstractDescribableImpl<TriggerRule> {
+
+    private final String branchFilter;
+    private final List<ActionJobReference> jobs;
+    private boolean onCreate;
+    private boolean onDelete;
+    private boolean onUpdate;
+    private boolean onRunDelete;
+    private transient volatile BranchFilter compiledFilter;
+
+    /**
+     * @param branchFilter Branches the rule applies to
+     * @param jobs         Jobs to trigger
+     */
+    @DataBoundConstructor
+    public TriggerRule(String branchFilter, List<ActionJobReference> jobs) {
+        this.branchFilter = Util.fixNull(branchFilter).trim();
+        this.jobs = jobs == null ? new ArrayList<>() : new ArrayList<>(jobs);
+    }
+
+    public String getBranchFilter() {
+        return branchFilter;
+    }
+
+    public List<ActionJobReference> getJobs() {
+        return jobs == null ? Collections.emptyList() : jobs;
+    }
+
+    public boolean isOnCreate() {
+        return onCreate;
+    }
+
+    @DataBoundSetter
+    public void setOnCreate(boolean onCreate) {
+        this.onCreate = onCreate;
+    }
+
+    public boolean isOnDelete() {
+        return onDelete;
+    }
+
+    @DataBoundSetter
+    public void setOnDelete(boolean onDelete) {
+        this.onDelete = onDelete;
+    }
+
+    public boolean isOnUpdate() {
+        return onUpdate;
+    }
+
+    @DataBoundSetter
+    public void setOnUpdate(boolean onUpdate) {
+        this.onUpdate = onUpdate;
+    }
+
+    public boolean isOnRunDelete() {
+        return onRunDelete;
+    }
+
+    @DataBoundSetter
+    public void setOnRunDelete(boolean onRunDelete) {
+        this.onRunDelete = onRunDelete;
+    }
+
+    /**
+     * @return Event types the rule triggers its jobs for
+     */
+    Set<PipelineTriggerProperty.PipelineTriggerBuildAction> getEvents() {
+        Set<PipelineTriggerProperty.PipelineTriggerBuildAction> events = EnumSet.noneOf(PipelineTriggerProperty.PipelineTriggerBuildAction.class);
+        if (onCreate)
+            events.add(PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction);
+        if (onDelete)
+            events.add(PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction);
+        if (onUpdate)
+            events.add(PipelineTriggerProperty.PipelineTriggerBuildAction.updatePipelineAction);
+        if (onRunDelete)
+            events.add(PipelineTriggerProperty.PipelineTriggerBuildAction.deleteRunPipelineAction);
+        return events;
+    }
+
+    /**
+     * @param subject Branch of the event
+     * @return true if there is no filter, or the branch matches the filter
+     */
+    boolean matches(BranchFilter.Subject subject) {
+        if (branchFilter.isEmpty())
+            return true;
+        BranchFilter filter = this.compiledFilter;
+        if (filter == null)
+            this.compiledFilter = filter = PipelineTriggerProperty.compileFilter(branchFilter, false);
+        return filter.matches(subject);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<TriggerRule> {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Trigger Rule";
+        }
+
+        public FormValidation doCheckBranchFilter(@QueryParameter String value) {
+            return PipelineTriggerProperty.DescriptorImpl.checkFilter(value);
+        }
+    }
+}
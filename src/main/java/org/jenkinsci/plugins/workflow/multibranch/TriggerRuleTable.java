@@ -0,0 +1,117 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compiled dispatch table of the TriggerRule(s) of a property.
+ * Rules are grouped by event type. Within an event type, rules whose filter only has plain name clauses are indexed
+ * by the literal prefix of each clause; all other rules are always candidates. Evaluating an event looks up one
+ * bucket per distinct prefix length, so only the rules which could match the branch are checked against it.
+ */
+final class TriggerRuleTable {
+
+    static final TriggerRuleTable EMPTY = new TriggerRuleTable(Collections.emptyList());
+
+    private final List<TriggerRule> rules;
+    private final Map<PipelineTriggerProperty.PipelineTriggerBuildAction, Dispatch> dispatches =
+            new EnumMap<>(PipelineTriggerProperty.PipelineTriggerBuildAction.class);
+
+    TriggerRuleTable(List<TriggerRule> rules) {
+        this.rules = new ArrayList<>(rules);
+        for (int i = 0; i < this.rules.size(); i++) {
+            TriggerRule rule = this.rules.get(i);
+            if (rule.getJobs().isEmpty())
+                continue;
+            List<String> prefixes;
+            try {
+                prefixes = rule.getBranchFilter().isEmpty() ? null : BranchFilter.literalPrefixes(rule.getBranchFilter());
+            } catch (IllegalArgumentException ex) {
+                prefixes = null;
+            }
+            for (PipelineTriggerProperty.PipelineTriggerBuildAction action : rule.getEvents())
+                dispatches.computeIfAbsent(action, k -> new Dispatch()).add(i, prefixes);
+        }
+        for (Dispatch dispatch : dispatches.values())
+            dispatch.seal();
+    }
+
+    /**
+     * @param action Event type
+     * @return true if any rule triggers jobs for @action
+     */
+    boolean hasRules(PipelineTriggerProperty.PipelineTriggerBuildAction action) {
+        return dispatches.containsKey(action);
+    }
+
+    /**
+     * @param action Event type
+     * @return Job references of all rules for @action, regardless of the branch
+     */
+    List<ActionJobReference> getReferences(PipelineTriggerProperty.PipelineTriggerBuildAction action) {
+        Dispatch dispatch = dispatches.get(action);
+        if (dispatch == null)
+            return Collections.emptyList();
+        List<ActionJobReference> references = new ArrayList<>();
+        for (int i = dispatch.all.nextSetBit(0); i >= 0; i = dispatch.all.nextSetBit(i + 1))
+            references.addAll(rules.get(i).getJobs());
+        return references;
+    }
+
+    /**
+     * @param action  Event type
+     * @param subject Branch of the event
+     * @return Job references of the rules for @action matching the branch, in rule order
+     */
+    List<ActionJobReference> getMatchingReferences(PipelineTriggerProperty.PipelineTriggerBuildAction action, BranchFilter.Subject subject) {
+        Dispatch dispatch = dispatches.get(action);
+        if (dispatch == null)
+            return Collections.emptyList();
+        BitSet candidates = (BitSet) dispatch.unindexed.clone();
+        String name = subject.getName();
+        for (int length : dispatch.prefixLengths) {
+            if (length > name.length())
+                break;
+            BitSet bucket = dispatch.buckets.get(name.substring(0, length));
+            if (bucket != null)
+                candidates.or(bucket);
+        }
+        List<ActionJobReference> references = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            TriggerRule rule = rules.get(i);
+            if (rule.matches(subject))
+                references.addAll(rule.getJobs());
+        }
+        return references;
+    }
+
+    private static final class Dispatch {
+        private final BitSet all = new BitSet();
+        private final BitSet unindexed = new BitSet();
+        private final Map<String, BitSet> buckets = new HashMap<>();
+        private int[] prefixLengths;
+
+        void add(int rule, List<String> prefixes) {
+            all.set(rule);
+            if (prefixes == null) {
+                unindexed.set(rule);
+                return;
+            }
+            for (String prefix : prefixes)
+                buckets.computeIfAbsent(prefix, k -> new BitSet()).set(rule);
+        }
+
+        void seal() {
+            TreeSet<Integer> lengths = new TreeSet<>();
+            for (String prefix : buckets.keySet())
+                lengths.add(prefix.length());
+            prefixLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.ProxyConfiguration;
+import hudson.Util;
+import hudson.init.Terminator;
+import hudson.model.PeriodicWork;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import jenkins.util.Timer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivery queue of a webhook endpoint, shared by all WebhookNotificationHandler(s) with the same URL and settings.
+ * Events are serialized when queued and sent in batches as a JSON array, one request at a time per queue.
+ * A failed request is retried with exponential backoff starting at {@code .webhookBackoffMillis} (default 1000).
+ * Batches still failing, events not fitting into the queue of {@code .webhookQueueSize} (default 10000),
+ * and events still queued when Jenkins stops, are appended to a spill file of at most {@code .webhookSpillMaxKB}
+ * (default 10240) KB. The spill file starts with the URL and settings of the queue, so it is queued again
+ * after the next successful request, or by {@link Registry} once a minute and after a restart.
+ * Events not fitting into the spill file are dropped with a warning. Delivery is at least once.
+ */
+final class WebhookDeliveryQueue {
+
+    private static final Logger LOGGER = Logger.getLogger(WebhookDeliveryQueue.class.getName());
+    private static final int QUEUE_SIZE = SystemProperties.getInteger(PipelineTriggerProperty.class.getName() + ".webhookQueueSize", 10000);
+    private static final long SPILL_MAX_BYTES = 1024L * SystemProperties.getLong(PipelineTriggerProperty.class.getName() + ".webhookSpillMaxKB", 10240L);
+    private static final long BACKOFF_MILLIS = SystemProperties.getLong(PipelineTriggerProperty.class.getName() + ".webhookBackoffMillis", 1000L);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static volatile HttpClient client;
+
+    private final String url;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final int maxRetries;
+    private final BlockingQueue<String> pending = new LinkedBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private final AtomicBoolean lingering = new AtomicBoolean();
+    private volatile List<String> inFlightBatch;
+
+    private WebhookDeliveryQueue(String url, int batchSize, long lingerMillis, int maxRetries) {
+        this.url = url;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * @return Queue of the endpoint with these settings, handlers with the same URL but other settings get their own queue
+     */
+    static WebhookDeliveryQueue get(String url, int batchSize, long lingerMillis, int maxRetries) {
+        return Registry.get().queues.computeIfAbsent(getKey(url, batchSize, lingerMillis, maxRetries),
+                key -> new WebhookDeliveryQueue(url, batchSize, lingerMillis, maxRetries));
+    }
+
+    private static String getKey(String url, int batchSize, long lingerMillis, int maxRetries) {
+        return url + ' ' + batchSize + ' ' + lingerMillis + ' ' + maxRetries;
+    }
+
+    private static HttpClient getClient() {
+        HttpClient httpClient = client;
+        if (httpClient == null)
+            client = httpClient = ProxyConfiguration.newHttpClientBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        return httpClient;
+    }
+
+    /**
+     * Queue an event. Never blocks, the batch is sent from a Timer thread.
+     *
+     * @param event Branch event
+     */
+    void offer(PipelineTriggerEvent event) {
+        String json;
+        try {
+            json = toJson(event);
+        } catch (JsonProcessingException ex) {
+            LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not serialize event of " + event.getProjectFullName(), ex);
+            return;
+        }
+        if (!pending.offer(json))
+            this.spill(List.of(json));
+        this.scheduleFlush();
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    static String toJson(PipelineTriggerEvent event) throws JsonProcessingException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event", event.getType().name());
+        payload.put("eventDisplayName", event.getType().getDisplayName());
+        payload.put("project", event.getProjectFullName());
+        payload.put("timestamp", event.getTimestamp());
+        payload.put("parameters", event.getParameters());
+        return MAPPER.writeValueAsString(payload);
+    }
+
+    private void scheduleFlush() {
+        if (pending.size() >= batchSize)
+            Timer.get().submit(this::flush);
+        else if (!pending.isEmpty() && lingering.compareAndSet(false, true))
+            Timer.get().schedule(() -> {
+                lingering.set(false);
+                this.flush();
+            }, lingerMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        if (!inFlight.compareAndSet(false, true))
+            return;
+        List<String> batch = new ArrayList<>();
+        pending.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            inFlight.set(false);
+            return;
+        }
+        inFlightBatch = batch;
+        this.send(batch, 0);
+    }
+
+    private void send(List<String> batch, int attempt) {
+        HttpRequest request = ProxyConfiguration.newHttpRequestBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("[" + String.join(",", batch) + "]", StandardCharsets.UTF_8))
+                .build();
+        getClient().sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+            if (ex == null && response.statusCode() / 100 == 2) {
+                inFlightBatch = null;
+                inFlight.set(false);
+                this.unspill();
+                this.scheduleFlush();
+            } else if (attempt < maxRetries) {
+                LOGGER.log(Level.FINE, "[MultiBranch Action Triggers Plugin] Webhook {0} failed ({1}), retry {2} of {3}",
+                        new Object[]{url, ex != null ? ex.toString() : response.statusCode(), attempt + 1, maxRetries});
+                Timer.get().schedule(() -> this.send(batch, attempt + 1), BACKOFF_MILLIS << Math.min(attempt, 16), TimeUnit.MILLISECONDS);
+            } else {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Webhook {0} failed ({1}) after {2} retries, spilling {3} event(s)",
+                        new Object[]{url, ex != null ? ex.toString() : response.statusCode(), maxRetries, batch.size()});
+                this.spill(batch);
+                inFlightBatch = null;
+                inFlight.set(false);
+                this.scheduleFlush();
+            }
+        });
+    }
+
+    private static File getSpillDirectory() {
+        return new File(Jenkins.get().getRootDir(), "multibranch-action-triggers/webhook-spill");
+    }
+
+    File getSpillFile() {
+        return new File(getSpillDirectory(), Util.getDigestOf(getKey(url, batchSize, lingerMillis, maxRetries)) + ".jsonl");
+    }
+
+    /**
+     * Queue the spilled events again and send them, unless a request is in flight, which does so once it succeeds.
+     */
+    void replay() {
+        if (inFlight.get())
+            return;
+        this.unspill();
+        this.scheduleFlush();
+    }
+
+    /**
+     * Spill the queued events and the batch in flight, which may still be delivered before Jenkins stops.
+     */
+    private void spillPending() {
+        List<String> events = new ArrayList<>();
+        List<String> batch = inFlightBatch;
+        if (batch != null)
+            events.addAll(batch);
+        pending.drainTo(events);
+        if (!events.isEmpty())
+            this.spill(events);
+    }
+
+    private synchronized void spill(List<String> events) {
+        File spillFile = this.getSpillFile();
+        StringBuilder lines = new StringBuilder();
+        if (!spillFile.isFile()) {
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("url", url);
+            header.put("batchSize", batchSize);
+            header.put("lingerMillis", lingerMillis);
+            header.put("maxRetries", maxRetries);
+            try {
+                lines.append(MAPPER.writeValueAsString(header)).append('\n');
+            } catch (JsonProcessingException ex) {
+                LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not spill " + events.size() + " event(s) of webhook " + url, ex);
+                return;
+            }
+        }
+        for (String event : events)
+            lines.append(event).append('\n');
+        byte[] bytes = lines.toString().getBytes(StandardCharsets.UTF_8);
+        if (spillFile.length() + bytes.length > SPILL_MAX_BYTES) {
+            LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Spill file of webhook {0} is full, dropped {1} event(s)",
+                    new Object[]{url, events.size()});
+            return;
+        }
+        try {
+            Files.createDirectories(spillFile.getParentFile().toPath());
+            Files.write(spillFile.toPath(), bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not spill " + events.size() + " event(s) of webhook " + url, ex);
+        }
+    }
+
+    /**
+     * Queue the spilled events again, the ones not fitting into the queue are spilled again.
+     */
+    private synchronized void unspill() {
+        File spillFile = this.getSpillFile();
+        if (!spillFile.isFile())
+            return;
+        try {
+            List<String> events = Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8);
+            Files.delete(spillFile.toPath());
+            List<String> overflow = new ArrayList<>();
+            // The first line is the header written by spill
+            for (String event : events.subList(Math.min(1, events.size()), events.size())) {
+                if (!event.isEmpty() && !pending.offer(event))
+                    overflow.add(event);
+            }
+            if (!overflow.isEmpty())
+                this.spill(overflow);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not read spill file of webhook " + url, ex);
+        }
+    }
+
+    /**
+     * Queues of this Jenkins instance. Replays the spill files once a minute, including the ones left by a previous run,
+     * whose queues are created from the header of the file, and spills the queued events when Jenkins stops.
+     */
+    @Extension
+    public static class Registry extends PeriodicWork {
+
+        private final Map<String, WebhookDeliveryQueue> queues = new ConcurrentHashMap<>();
+
+        static Registry get() {
+            return ExtensionList.lookupSingleton(Registry.class);
+        }
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.MINUTES.toMillis(1);
+        }
+
+        @Override
+        protected void doRun() {
+            File[] spillFiles = getSpillDirectory().listFiles((dir, name) -> name.endsWith(".jsonl"));
+            if (spillFiles == null)
+                return;
+            for (File spillFile : spillFiles) {
+                JsonNode header;
+                try (BufferedReader reader = Files.newBufferedReader(spillFile.toPath(), StandardCharsets.UTF_8)) {
+                    header = MAPPER.readTree(Util.fixNull(reader.readLine()));
+                } catch (IOException ex) {
+                    LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Could not replay spill file " + spillFile, ex);
+                    continue;
+                }
+                if (header == null || !header.hasNonNull("url")) {
+                    LOGGER.log(Level.WARNING, "[MultiBranch Action Triggers Plugin] Ignoring spill file without header {0}", spillFile);
+                    continue;
+                }
+                WebhookDeliveryQueue.get(header.get("url").asText(), header.path("batchSize").asInt(100),
+                        header.path("lingerMillis").asLong(1000), header.path("maxRetries").asInt(3)).replay();
+            }
+        }
+
+        @Terminator
+        public static void spillAll() {
+            for (Registry registry : ExtensionList.lookup(Registry.class)) {
+                for (WebhookDeliveryQueue queue : registry.queues.values())
+                    queue.spillPending();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.Item;
+import hudson.util.FormValidation;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.POST;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Sends branch events to an external HTTP endpoint instead of scheduling builds.
+ * Events are queued per endpoint and settings and POSTed asynchronously as JSON arrays, see {@link WebhookDeliveryQueue}.
+ */
+public class WebhookNotificationHandler extends PipelineTriggerHandler {
+
+    private final String url;
+    private int batchSize = 100;
+    private long lingerMillis = 1000;
+    private int maxRetries = 3;
+
+    /**
+     * @param url Endpoint the events are POSTed to
+     */
+    @DataBoundConstructor
+    public WebhookNotificationHandler(String url) {
+        this.url = Util.fixNull(url).trim();
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize Maximum number of events per request. A full batch is sent without waiting for @lingerMillis
+     */
+    @DataBoundSetter
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    /**
+     * @param lingerMillis How long the first event of a batch waits for further events
+     */
+    @DataBoundSetter
+    public void setLingerMillis(long lingerMillis) {
+        this.lingerMillis = Math.max(0, lingerMillis);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param maxRetries Retries of a failed request, with exponential backoff. A batch still failing is spilled to disk
+     */
+    @DataBoundSetter
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = Math.max(0, maxRetries);
+    }
+
+    @Override
+    public void handle(PipelineTriggerEvent event) {
+        if (url.isEmpty())
+            return;
+        WebhookDeliveryQueue.get(url, batchSize, lingerMillis, maxRetries).offer(event);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends PipelineTriggerHandlerDescriptor {
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Webhook Notification";
+        }
+
+        @POST
+        public FormValidation doCheckUrl(@AncestorInPath Item item, @QueryParameter String value) {
+            if (item == null ? !Jenkins.get().hasPermission(Jenkins.ADMINISTER) : !item.hasPermission(Item.CONFIGURE))
+                return FormValidation.ok();
+            if (Util.fixEmptyAndTrim(value) == null)
+                return FormValidation.error("URL is required");
+            try {
+                String scheme = new URI(value.trim()).getScheme();
+                if (!"http".equalsIgnoreCase(scheme) && !"https".equalsIgnoreCase(scheme))
+                    return FormValidation.error("Only http and https URLs are supported");
+            } catch (URISyntaxException ex) {
+                return FormValidation.error("Invalid URL: " + ex.getMessage());
+            }
+            return FormValidation.ok();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.XmlFile;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.model.ParameterDefinition;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.Saveable;
+import hudson.model.StringParameterDefinition;
+import hudson.model.listeners.SaveableListener;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ActionJobParameterReconcilerTest {
+
+    private static final Map<String, AtomicInteger> SAVES = new ConcurrentHashMap<>();
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testMissingDefinitionsAddedWithSingleSave() throws Exception {
+        FreeStyleProject action = jenkins.createFreeStyleProject("action");
+        action.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("EXISTING", "kept", "")));
+        int saves = getSaves(action);
+        List<ParameterDefinition> desired = Arrays.asList(
+                new StringParameterDefinition("EXISTING", "replaced", ""),
+                new StringParameterDefinition(PipelineTriggerProperty.projectNameParameterKey, "", ""),
+                new StringParameterDefinition(PipelineTriggerProperty.projectFullNameParameterKey, "", ""));
+
+        Assert.assertTrue(ActionJobParameterReconciler.reconcile(action, desired));
+        Assert.assertEquals(saves + 1, getSaves(action));
+        ParametersDefinitionProperty parameters = action.getProperty(ParametersDefinitionProperty.class);
+        Assert.assertEquals(Arrays.asList("EXISTING", PipelineTriggerProperty.projectNameParameterKey, PipelineTriggerProperty.projectFullNameParameterKey),
+                parameters.getParameterDefinitionNames());
+        Assert.assertEquals("kept", ((StringParameterDefinition) parameters.getParameterDefinition("EXISTING")).getDefaultValue());
+
+        // No drift, nothing to save
+        Assert.assertFalse(ActionJobParameterReconciler.reconcile(action, desired));
+        Assert.assertEquals(saves + 1, getSaves(action));
+    }
+
+    @Test
+    public void testFolderSaveSchedulesReconciliation() throws Exception {
+        FreeStyleProject action = jenkins.createFreeStyleProject("action");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("action", "", "", "*", "", new ArrayList<>());
+        project.getProperties().add(property);
+        awaitParameter(action, PipelineTriggerProperty.projectNameParameterKey);
+
+        property.setAdditionalParameters(Collections.singletonList(new AdditionalParameter("ENVIRONMENT", "test")));
+        project.save();
+        awaitParameter(action, "ENVIRONMENT");
+
+        // Saves which do not change the desired parameters, e.g. by branch indexing, do not touch the action jobs
+        int saves = getSaves(action);
+        project.save();
+        Thread.sleep(3000);
+        Assert.assertEquals(saves, getSaves(action));
+    }
+
+    @Test
+    public void testNewlyReferencedJobReceivesParameters() throws Exception {
+        FreeStyleProject action = jenkins.createFreeStyleProject("action");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("action", "", "", "*", "", new ArrayList<>());
+        project.getProperties().add(property);
+        awaitParameter(action, PipelineTriggerProperty.projectNameParameterKey);
+        FreeStyleProject late = jenkins.createFreeStyleProject("late");
+        // Referenced without a folder save, so no reconciliation ran for it yet
+        property.setCreateActionJobsToTrigger("action,late");
+        Assert.assertNull(late.getProperty(ParametersDefinitionProperty.class));
+
+        property.triggerActionJobs(property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master")),
+                Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction);
+        jenkins.waitUntilNoActivity();
+        FreeStyleBuild build = late.getLastBuild();
+        Assert.assertNotNull(build);
+        ParametersAction parameters = build.getAction(ParametersAction.class);
+        Assert.assertEquals("PR-1", parameters.getParameter(PipelineTriggerProperty.projectNameParameterKey).getValue());
+        Assert.assertEquals("project/PR-1", parameters.getParameter(PipelineTriggerProperty.projectFullNameParameterKey).getValue());
+        Assert.assertEquals("feature", parameters.getParameter(PipelineTriggerProperty.sourceBranchName).getValue());
+    }
+
+    private static int getSaves(Job<?, ?> job) {
+        AtomicInteger saves = SAVES.get(job.getFullName());
+        return saves == null ? 0 : saves.get();
+    }
+
+    private static void awaitParameter(Job<?, ?> job, String name) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ParametersDefinitionProperty parameters = job.getProperty(ParametersDefinitionProperty.class);
+            if (parameters != null && parameters.getParameterDefinition(name) != null)
+                return;
+            Thread.sleep(100);
+        }
+        Assert.fail("Parameter " + name + " was not added to " + job.getFullName());
+    }
+
+    @TestExtension
+    public static class SaveCounter extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof Job)
+                SAVES.computeIfAbsent(((Job<?, ?>) o).getFullName(), k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+}
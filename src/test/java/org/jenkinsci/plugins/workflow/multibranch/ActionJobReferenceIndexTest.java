@@ -0,0 +1,117 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import jenkins.branch.OrganizationFolder;
+import jenkins.scm.impl.mock.MockSCMController;
+import jenkins.scm.impl.mock.MockSCMDiscoverBranches;
+import jenkins.scm.impl.mock.MockSCMNavigator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+public class ActionJobReferenceIndexTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testReferencesFollowMovedJobs() throws Exception {
+        MockFolder folder = jenkins.createFolder("cleanup");
+        FreeStyleProject teardown = folder.createProject(FreeStyleProject.class, "teardown");
+        FreeStyleProject notify = jenkins.createFreeStyleProject("notify");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        project.getProperties().add(new PipelineTriggerProperty(
+                "cleanup/teardown", "cleanup/teardown,notify", "", "*", "", new ArrayList<>()));
+        ActionJobReferenceIndex index = ActionJobReferenceIndex.get();
+
+        Assert.assertEquals(Collections.singleton("project"), index.getReferencingFolders("cleanup/teardown"));
+        Assert.assertEquals(Collections.singleton("project"), index.getReferencingFolders("notify"));
+
+        teardown.renameTo("destroy");
+        PipelineTriggerProperty property = project.getProperties().get(PipelineTriggerProperty.class);
+        Assert.assertEquals("cleanup/destroy", property.getCreateActionJobsToTrigger());
+        Assert.assertEquals("cleanup/destroy,notify", property.getDeleteActionJobsToTrigger());
+        Assert.assertTrue(index.getReferencingFolders("cleanup/teardown").isEmpty());
+
+        folder.renameTo("housekeeping");
+        Assert.assertEquals("housekeeping/destroy", property.getCreateActionJobsToTrigger());
+        Assert.assertEquals(Collections.singleton("project"), index.getReferencingFolders("housekeeping/destroy"));
+
+        project.renameTo("renamed-project");
+        Assert.assertEquals(Collections.singleton("renamed-project"), index.getReferencingFolders("notify"));
+
+        notify.renameTo("notify-team");
+        Assert.assertEquals("housekeeping/destroy,notify-team", property.getDeleteActionJobsToTrigger());
+        Assert.assertEquals(2, property.getDeleteActionJobs().size());
+    }
+
+    @Test
+    public void testMovedJobsUpdateOrganizationFolderProjects() throws Exception {
+        FreeStyleProject teardown = jenkins.createFreeStyleProject("teardown");
+        jenkins.createFreeStyleProject("notify");
+        try (MockSCMController c = MockSCMController.create()) {
+            for (String repository : new String[]{"repo-one", "repo-two"}) {
+                c.createRepository(repository);
+                c.addFile(repository, "master", "Jenkinsfile", "Jenkinsfile", "echo 'hi'".getBytes(StandardCharsets.UTF_8));
+            }
+            OrganizationFolder organizationFolder = jenkins.createProject(OrganizationFolder.class, "organization");
+            organizationFolder.getNavigators().add(new MockSCMNavigator(c, new MockSCMDiscoverBranches()));
+            organizationFolder.getProperties().add(new PipelineTriggerProperty("teardown", "teardown,notify", "", "*", "", new ArrayList<>()));
+            organizationFolder.scheduleBuild2(0).getFuture().get();
+            jenkins.waitUntilNoActivity();
+            Assert.assertEquals(2, organizationFolder.getItems().size());
+
+            teardown.renameTo("destroy");
+            // The projects share the property of the organization folder, every folder must be saved
+            PipelineTriggerProperty property = organizationFolder.getProperties().get(PipelineTriggerProperty.class);
+            Assert.assertEquals("destroy", property.getCreateActionJobsToTrigger());
+            Assert.assertEquals("destroy,notify", property.getDeleteActionJobsToTrigger());
+            Assert.assertTrue(organizationFolder.getConfigFile().asString().contains("<createActionJobsToTrigger>destroy</createActionJobsToTrigger>"));
+            for (String repository : new String[]{"repo-one", "repo-two"}) {
+                WorkflowMultiBranchProject project = (WorkflowMultiBranchProject) organizationFolder.getItem(repository);
+                Assert.assertNotNull(project);
+                Assert.assertEquals("destroy", project.getProperties().get(PipelineTriggerProperty.class).getCreateActionJobsToTrigger());
+                String config = project.getConfigFile().asString();
+                Assert.assertTrue(config.contains("<createActionJobsToTrigger>destroy</createActionJobsToTrigger>"));
+                Assert.assertFalse(config.contains("teardown"));
+            }
+            Assert.assertTrue(ActionJobReferenceIndex.get().getReferencingFolders("teardown").isEmpty());
+        }
+    }
+
+    @Test
+    public void testReverseDependencies() throws Exception {
+        FreeStyleProject cleanup = jenkins.createFreeStyleProject("cleanup");
+        FreeStyleProject unused = jenkins.createFreeStyleProject("unused");
+        WorkflowMultiBranchProject first = jenkins.createProject(WorkflowMultiBranchProject.class, "first");
+        first.getProperties().add(new PipelineTriggerProperty("cleanup", "cleanup", "", "*", "", new ArrayList<>()));
+        WorkflowMultiBranchProject second = jenkins.createProject(WorkflowMultiBranchProject.class, "second");
+        second.getProperties().add(new PipelineTriggerProperty("", "", "cleanup", "*", "", new ArrayList<>()));
+
+        Map<String, Set<PipelineTriggerProperty.PipelineTriggerBuildAction>> references = ActionJobReferenceIndex.get().getReferences("cleanup");
+        Assert.assertEquals(EnumSet.of(PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction,
+                PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction), references.get("first"));
+        Assert.assertEquals(EnumSet.of(PipelineTriggerProperty.PipelineTriggerBuildAction.deleteRunPipelineAction), references.get("second"));
+
+        ActionJobTriggersAction action = cleanup.getAction(ActionJobTriggersAction.class);
+        Assert.assertNotNull(action);
+        Assert.assertEquals(3, action.getTriggers().size());
+        Assert.assertEquals(0, action.getEstimatedFanOut());
+        Assert.assertNull(unused.getAction(ActionJobTriggersAction.class));
+
+        second.getProperties().get(PipelineTriggerProperty.class).setActionJobsToTriggerOnRunDelete("unused");
+        second.save();
+        Assert.assertEquals(Collections.singleton("first"), ActionJobReferenceIndex.get().getReferencingFolders("cleanup"));
+        Assert.assertNotNull(unused.getAction(ActionJobTriggersAction.class));
+        jenkins.createWebClient().goTo("job/unused/actionTriggers/api/json", "application/json");
+    }
+}
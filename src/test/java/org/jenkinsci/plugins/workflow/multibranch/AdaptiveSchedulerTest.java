@@ -0,0 +1,78 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+public class AdaptiveSchedulerTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    private final int defaultQueueSlack = AdaptiveScheduler.queueSlack;
+
+    @After
+    public void resetQueueSlack() {
+        AdaptiveScheduler.queueSlack = defaultQueueSlack;
+    }
+
+    @Test
+    public void testHoldWhileSaturated() throws Exception {
+        AdaptiveScheduler.queueSlack = 1;
+        jenkins.jenkins.setNumExecutors(0);
+        FreeStyleProject blocker = jenkins.createFreeStyleProject("blocker");
+        FreeStyleProject provision = jenkins.createFreeStyleProject("provision");
+        FreeStyleProject cleanup = jenkins.createFreeStyleProject("cleanup");
+        AdaptiveScheduler scheduler = AdaptiveScheduler.get();
+
+        blocker.scheduleBuild2(0);
+        jenkins.jenkins.getQueue().maintain();
+        Assert.assertEquals(1, jenkins.jenkins.getQueue().countBuildableItems());
+
+        scheduler.schedule(provision, 600, new BranchEventAction("project/PR-1", PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction));
+        scheduler.schedule(cleanup, 600, new BranchEventAction("project/PR-1", PipelineTriggerProperty.PipelineTriggerBuildAction.deleteRunPipelineAction));
+        Assert.assertEquals(2, scheduler.getPendingCount());
+        Assert.assertFalse(provision.isInQueue());
+
+        // Still saturated, nothing is released
+        scheduler.release();
+        Assert.assertEquals(2, scheduler.getPendingCount());
+
+        Assert.assertEquals(1, scheduler.cancel("project/PR-1", PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction));
+        jenkins.jenkins.getQueue().cancel(blocker);
+        jenkins.jenkins.getQueue().maintain();
+        scheduler.release();
+        Assert.assertEquals(0, scheduler.getPendingCount());
+        Assert.assertFalse(provision.isInQueue());
+        Assert.assertTrue(cleanup.isInQueue());
+    }
+
+    @Test
+    public void testHeldBuildOfDeletedJobRefused() throws Exception {
+        AdaptiveScheduler.queueSlack = 1;
+        jenkins.jenkins.setNumExecutors(0);
+        FreeStyleProject blocker = jenkins.createFreeStyleProject("blocker");
+        FreeStyleProject provision = jenkins.createFreeStyleProject("provision");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        AdaptiveScheduler scheduler = AdaptiveScheduler.get();
+        blocker.scheduleBuild2(0);
+        jenkins.jenkins.getQueue().maintain();
+
+        long eventTime = System.currentTimeMillis();
+        long outcomeId = TriggerOutcomeStore.record("project/PR-1", PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction,
+                "provision", eventTime);
+        scheduler.schedule(provision, 0, new BranchEventAction("project/PR-1",
+                PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction, outcomeId, eventTime));
+        Assert.assertEquals(TriggerOutcome.Status.HELD, TriggerOutcomeStore.get(project).getOutcomes().get(0).getStatus());
+
+        provision.delete();
+        jenkins.jenkins.getQueue().cancel(blocker);
+        jenkins.jenkins.getQueue().maintain();
+        scheduler.release();
+        Assert.assertEquals(0, scheduler.getPendingCount());
+        Assert.assertEquals(TriggerOutcome.Status.REFUSED, TriggerOutcomeStore.get(project).getOutcomes().get(0).getStatus());
+    }
+}
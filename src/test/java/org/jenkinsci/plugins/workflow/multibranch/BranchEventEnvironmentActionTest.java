@@ -0,0 +1,46 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.CaptureEnvironmentBuilder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class BranchEventEnvironmentActionTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testNoDefinitionMode() throws Exception {
+        FreeStyleProject create = jenkins.createFreeStyleProject("create");
+        CaptureEnvironmentBuilder environment = new CaptureEnvironmentBuilder();
+        create.getBuildersList().add(environment);
+        String config = create.getConfigFile().asString();
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("create", "", "", "*", "",
+                new ArrayList<>(Collections.singletonList(new AdditionalParameter("name1", "value1"))));
+        property.setSkipParameterDefinitions(true);
+        project.getProperties().add(property);
+
+        property.triggerActionJobs(property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master")),
+                Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction);
+        jenkins.waitUntilNoActivity();
+
+        Assert.assertEquals(1, create.getBuilds().size());
+        Assert.assertNull(create.getProperty(ParametersDefinitionProperty.class));
+        Assert.assertEquals(config, create.getConfigFile().asString());
+        Assert.assertNull(create.getLastBuild().getAction(ParametersAction.class));
+        Assert.assertEquals("PR-1", environment.getEnvVars().get(PipelineTriggerProperty.projectNameParameterKey));
+        Assert.assertEquals("project/PR-1", environment.getEnvVars().get(PipelineTriggerProperty.projectFullNameParameterKey));
+        Assert.assertEquals("feature", environment.getEnvVars().get(PipelineTriggerProperty.sourceBranchName));
+        Assert.assertEquals("master", environment.getEnvVars().get(PipelineTriggerProperty.targetBranchName));
+        Assert.assertEquals("value1", environment.getEnvVars().get("name1"));
+    }
+}
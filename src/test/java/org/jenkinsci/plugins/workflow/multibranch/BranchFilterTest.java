@@ -0,0 +1,88 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class BranchFilterTest {
+
+    private final BranchFilter.Subject master = new BranchFilter.Subject("master", PullRequestInfo.HeadCategory.BRANCH, "", false);
+    private final BranchFilter.Subject feature = new BranchFilter.Subject("feature-1", PullRequestInfo.HeadCategory.BRANCH, "", false);
+    private final BranchFilter.Subject pullRequest = new BranchFilter.Subject("PR-1", PullRequestInfo.HeadCategory.PULL_REQUEST, "main", false);
+    private final BranchFilter.Subject forkPullRequest = new BranchFilter.Subject("PR-2", PullRequestInfo.HeadCategory.PULL_REQUEST, "develop", true);
+    private final BranchFilter.Subject tag = new BranchFilter.Subject("v1.0", PullRequestInfo.HeadCategory.TAG, "", false);
+
+    @Test
+    public void testWildcardsBehaveLikeConvertToPattern() {
+        List<String> filters = Arrays.asList("*", "master", "feat*", "feature bugfix", "*-1 mas*", "", "none");
+        List<String> names = Arrays.asList("master", "feature", "feature-1", "bugfix", "PR-1");
+        for (String filter : filters) {
+            BranchFilter branchFilter = BranchFilter.compile(filter);
+            Assert.assertTrue(branchFilter.isNameOnly());
+            for (String name : names) {
+                Assert.assertEquals(filter + " / " + name,
+                        Pattern.matches(PipelineTriggerProperty.convertToPattern(filter), name),
+                        branchFilter.matches(new BranchFilter.Subject(name, PullRequestInfo.HeadCategory.BRANCH, "", false)));
+            }
+        }
+    }
+
+    @Test
+    public void testRegex() {
+        BranchFilter branchFilter = BranchFilter.compile("regex:feature-\\d+");
+        Assert.assertTrue(branchFilter.isNameOnly());
+        Assert.assertTrue(branchFilter.matches(feature));
+        Assert.assertFalse(branchFilter.matches(master));
+    }
+
+    @Test
+    public void testTypeOriginAndTarget() {
+        BranchFilter types = BranchFilter.compile("type:pr type:tag");
+        Assert.assertFalse(types.isNameOnly());
+        Assert.assertFalse(types.matches(master));
+        Assert.assertTrue(types.matches(pullRequest));
+        Assert.assertTrue(types.matches(tag));
+
+        BranchFilter forks = BranchFilter.compile("origin:fork");
+        Assert.assertTrue(forks.matches(forkPullRequest));
+        Assert.assertFalse(forks.matches(pullRequest));
+        Assert.assertFalse(forks.matches(master));
+
+        BranchFilter target = BranchFilter.compile("target:ma*");
+        Assert.assertTrue(target.matches(pullRequest));
+        Assert.assertFalse(target.matches(forkPullRequest));
+        Assert.assertFalse(target.matches(master));
+    }
+
+    @Test
+    public void testConjunction() {
+        BranchFilter branchFilter = BranchFilter.compile("master type:pr&origin:default&PR-*");
+        Assert.assertTrue(branchFilter.matches(master));
+        Assert.assertTrue(branchFilter.matches(pullRequest));
+        Assert.assertFalse(branchFilter.matches(forkPullRequest));
+        Assert.assertFalse(branchFilter.matches(tag));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() {
+        BranchFilter.compile("type:unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRegex() {
+        BranchFilter.compile("regex:feature-(");
+    }
+
+    @Test
+    public void testInvalidFilterFailsClosed() {
+        BranchFilter include = PipelineTriggerProperty.compileFilter("regex:feature-(", false);
+        BranchFilter exclude = PipelineTriggerProperty.compileFilter("regex:feature-(", true);
+        Assert.assertFalse(include.matches(feature));
+        Assert.assertFalse(include.matches(master));
+        Assert.assertTrue(exclude.matches(feature));
+        Assert.assertTrue(exclude.matches(master));
+    }
+}
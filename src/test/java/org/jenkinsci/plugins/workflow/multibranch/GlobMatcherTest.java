@@ -0,0 +1,72 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+public class GlobMatcherTest {
+
+    @Test
+    public void testSimplePatterns() {
+        GlobMatcher matcher = GlobMatcher.compile("master release* *-hotfix feat*ure* a**b");
+        Assert.assertTrue(matcher.matches("master"));
+        Assert.assertFalse(matcher.matches("master2"));
+        Assert.assertTrue(matcher.matches("release"));
+        Assert.assertTrue(matcher.matches("release-1.0"));
+        Assert.assertTrue(matcher.matches("1.0-hotfix"));
+        Assert.assertTrue(matcher.matches("feature"));
+        Assert.assertTrue(matcher.matches("feat-new-ure-x"));
+        Assert.assertTrue(matcher.matches("ab"));
+        Assert.assertTrue(matcher.matches("axxb"));
+        Assert.assertFalse(matcher.matches("develop"));
+        Assert.assertFalse(matcher.matches(""));
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertFalse(GlobMatcher.compile("").matches("master"));
+        Assert.assertTrue(GlobMatcher.compile("*").matches(""));
+    }
+
+    @Test
+    public void testLargePatternListMatchesRegex() {
+        Random random = new Random(42);
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            patterns.add(randomPattern(random));
+        }
+        String definitions = String.join(" ", patterns);
+        GlobMatcher matcher = GlobMatcher.compile(patterns);
+        Pattern regex = Pattern.compile(PipelineTriggerProperty.convertToPattern(definitions));
+        List<String> names = new ArrayList<>(Arrays.asList("master", "legacy-1", "legacy-12-x", "PR-7"));
+        for (int i = 0; i < 2000; i++) {
+            names.add(randomName(random));
+        }
+        for (String name : names) {
+            Assert.assertEquals(name, regex.matcher(name).matches(), matcher.matches(name));
+        }
+    }
+
+    private static String randomPattern(Random random) {
+        StringBuilder pattern = new StringBuilder("legacy-");
+        int length = random.nextInt(4);
+        for (int i = 0; i < length; i++) {
+            pattern.append(random.nextInt(5) == 0 ? '*' : (char) ('0' + random.nextInt(4)));
+        }
+        return pattern.toString();
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder(random.nextBoolean() ? "legacy-" : "");
+        int length = random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('0' + random.nextInt(4)));
+        }
+        return name.toString();
+    }
+}
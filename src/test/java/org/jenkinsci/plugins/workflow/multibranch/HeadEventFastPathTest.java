@@ -0,0 +1,77 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import jenkins.branch.BranchSource;
+import jenkins.scm.api.SCMEvent;
+import jenkins.scm.impl.mock.MockSCMController;
+import jenkins.scm.impl.mock.MockSCMDiscoverBranches;
+import jenkins.scm.impl.mock.MockSCMHeadEvent;
+import jenkins.scm.impl.mock.MockSCMSource;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+public class HeadEventFastPathTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testCreateAndDeleteTriggeredOnce() throws Exception {
+        FreeStyleProject create = jenkins.createFreeStyleProject("create");
+        FreeStyleProject delete = jenkins.createFreeStyleProject("delete");
+        FreeStyleProject runDelete = jenkins.createFreeStyleProject("runDelete");
+        try (MockSCMController c = MockSCMController.create()) {
+            c.createRepository("repo");
+            c.createBranch("repo", "feature/x");
+            c.addFile("repo", "feature/x", "Jenkinsfile", "Jenkinsfile", "echo 'hi'".getBytes(StandardCharsets.UTF_8));
+            WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+            project.getSourcesList().add(new BranchSource(new MockSCMSource(c, "repo", new MockSCMDiscoverBranches())));
+            PipelineTriggerProperty property = new PipelineTriggerProperty("create", "delete", "runDelete", "*", "", new ArrayList<>());
+            property.setTriggerOnHeadEvents(true);
+            project.getProperties().add(property);
+            HeadEventFastPath fastPath = HeadEventFastPath.get();
+
+            // Delivered to the fast path only, branch indexing creates the job afterwards
+            MockSCMHeadEvent created = new MockSCMHeadEvent("test", SCMEvent.Type.CREATED, c, "repo", "feature/x", c.getRevision("repo", "feature/x"));
+            fastPath.onSCMHeadEvent(created);
+            fastPath.onSCMHeadEvent(created);
+            jenkins.waitUntilNoActivity();
+            Assert.assertEquals(1, create.getBuilds().size());
+
+            project.scheduleBuild2(0).getFuture().get();
+            jenkins.waitUntilNoActivity();
+            WorkflowJob branchJob = project.getItem("feature%2Fx");
+            Assert.assertNotNull(branchJob);
+            Assert.assertEquals(1, create.getBuilds().size());
+            Assert.assertFalse(fastPath.consume(branchJob.getFullName(), PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction));
+            FreeStyleBuild createBuild = create.getLastBuild();
+            ParametersAction parameters = createBuild.getAction(ParametersAction.class);
+            Assert.assertEquals("feature%2Fx", parameters.getParameter(PipelineTriggerProperty.projectNameParameterKey).getValue());
+            Assert.assertEquals("project/feature%2Fx", parameters.getParameter(PipelineTriggerProperty.projectFullNameParameterKey).getValue());
+            int branchBuilds = branchJob.getBuilds().size();
+
+            c.deleteBranch("repo", "feature/x");
+            MockSCMHeadEvent removed = new MockSCMHeadEvent("test", SCMEvent.Type.REMOVED, c, "repo", "feature/x", null);
+            fastPath.onSCMHeadEvent(removed);
+            jenkins.waitUntilNoActivity();
+            Assert.assertEquals(1, delete.getBuilds().size());
+            // The Runs still exist, Run delete actions wait for the actual delete of the job
+            Assert.assertEquals(0, runDelete.getBuilds().size());
+
+            project.scheduleBuild2(0).getFuture().get();
+            jenkins.waitUntilNoActivity();
+            Assert.assertNull(project.getItem("feature%2Fx"));
+            Assert.assertEquals(1, delete.getBuilds().size());
+            Assert.assertEquals(branchBuilds, runDelete.getBuilds().size());
+            Assert.assertEquals(1, create.getBuilds().size());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import jenkins.scm.api.SCMHead;
+import jenkins.scm.api.SCMRevision;
+import jenkins.scm.api.SCMRevisionAction;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+public class HeadRevisionTrackerTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    private final SCMHead head = new SCMHead("master");
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testAdvance() throws Exception {
+        FreeStyleProject project = jenkins.createFreeStyleProject("master");
+        FreeStyleBuild first = jenkins.buildAndAssertSuccess(project);
+        first.addAction(new SCMRevisionAction(new TestRevision(head, "a")));
+        FreeStyleBuild second = jenkins.buildAndAssertSuccess(project);
+        HeadRevisionTracker tracker = new HeadRevisionTracker();
+
+        // First build of a branch is covered by the create event
+        Assert.assertFalse(tracker.advance("other", new TestRevision(head, "a"), first));
+        Assert.assertFalse(tracker.advance("other", new TestRevision(head, "a"), first));
+        Assert.assertTrue(tracker.advance("other", new TestRevision(head, "b"), first));
+
+        // After a restart the last seen revision is seeded from the previous build
+        Assert.assertFalse(tracker.advance("master", new TestRevision(head, "a"), second));
+        HeadRevisionTracker restarted = new HeadRevisionTracker();
+        Assert.assertTrue(restarted.advance("master", new TestRevision(head, "b"), second));
+        Assert.assertFalse(restarted.advance("master", new TestRevision(head, "b"), second));
+    }
+
+    private static final class TestRevision extends SCMRevision {
+
+        private final String hash;
+
+        TestRevision(SCMHead head, String hash) {
+            super(head);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TestRevision && hash.equals(((TestRevision) o).hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockFolder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JobNameIndexTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testSearchAndIncrementalUpdates() throws Exception {
+        MockFolder folder = jenkins.createFolder("cleanup");
+        FreeStyleProject teardown = folder.createProject(FreeStyleProject.class, "teardown-env");
+        jenkins.createFreeStyleProject("provision-env");
+        JobNameIndex index = JobNameIndex.get();
+
+        Assert.assertTrue(index.contains("cleanup/teardown-env"));
+        Assert.assertEquals(Arrays.asList("cleanup/teardown-env", "provision-env"), sorted(index.search("env", 10, name -> true)));
+        Assert.assertEquals(Collections.singletonList("provision-env"), index.search("prov", 10, name -> true));
+        Assert.assertEquals(1, index.search("env", 1, name -> true).size());
+        Assert.assertEquals(Collections.singletonList("provision-env"), index.search("-env", 10, name -> !name.startsWith("cleanup/")));
+
+        jenkins.createFreeStyleProject("late-env");
+        Assert.assertTrue(index.contains("late-env"));
+
+        teardown.renameTo("destroy-env");
+        Assert.assertFalse(index.contains("cleanup/teardown-env"));
+        Assert.assertTrue(index.contains("cleanup/destroy-env"));
+
+        folder.delete();
+        Assert.assertFalse(index.contains("cleanup/destroy-env"));
+        Assert.assertEquals(Arrays.asList("late-env", "provision-env"), sorted(index.search("env", 10, name -> true)));
+    }
+
+    private static List<String> sorted(List<String> names) {
+        Collections.sort(names);
+        return names;
+    }
+}
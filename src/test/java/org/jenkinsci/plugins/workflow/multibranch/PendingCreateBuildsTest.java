@@ -0,0 +1,55 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class PendingCreateBuildsTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testCancelPendingCreateBuilds() throws Exception {
+        FreeStyleProject provision = jenkins.createFreeStyleProject("provision");
+        FreeStyleProject teardown = jenkins.createFreeStyleProject("teardown");
+        PendingCreateBuilds pendingCreateBuilds = PendingCreateBuilds.get();
+
+        provision.scheduleBuild2(600, new BranchEventAction("project/PR-1", PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction));
+        teardown.scheduleBuild2(600, new BranchEventAction("project/PR-1", PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction));
+        Assert.assertEquals(1, pendingCreateBuilds.getPendingCount("project/PR-1"));
+        Assert.assertEquals(0, pendingCreateBuilds.cancel("project/PR-2"));
+
+        Assert.assertEquals(1, pendingCreateBuilds.cancel("project/PR-1"));
+        Assert.assertFalse(provision.isInQueue());
+        Assert.assertTrue(teardown.isInQueue());
+        Assert.assertEquals(0, pendingCreateBuilds.getPendingCount("project/PR-1"));
+        Assert.assertEquals(0, pendingCreateBuilds.cancel("project/PR-1"));
+    }
+
+    @Test
+    public void testCancelAndSkipDelete() throws Exception {
+        jenkins.jenkins.setNumExecutors(0);
+        FreeStyleProject provision = jenkins.createFreeStyleProject("provision");
+        FreeStyleProject teardown = jenkins.createFreeStyleProject("teardown");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("provision", "teardown", "", "*", "", new ArrayList<>());
+        property.setPendingCreatePolicy(PipelineTriggerProperty.PendingCreatePolicy.CANCEL_AND_SKIP_DELETE);
+        project.getProperties().add(property);
+        BranchEventContext context = property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master"));
+
+        property.triggerActionJobs(context, Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction);
+        Assert.assertTrue(provision.isInQueue());
+        property.triggerActionJobs(context, Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction);
+
+        Assert.assertFalse(provision.isInQueue());
+        Assert.assertFalse(teardown.isInQueue());
+        Assert.assertEquals(0, PendingCreateBuilds.get().getPendingCount("project/PR-1"));
+        Assert.assertNull(teardown.getLastBuild());
+    }
+}
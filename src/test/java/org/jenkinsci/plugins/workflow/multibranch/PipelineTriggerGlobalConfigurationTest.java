@@ -0,0 +1,53 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class PipelineTriggerGlobalConfigurationTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testDefaultRulesApplyWithoutOwnProperty() throws Exception {
+        PipelineTriggerProperty teamDefaults = new PipelineTriggerProperty("provision", "", "", "*", "", new ArrayList<>());
+        PipelineTriggerProperty catchAll = new PipelineTriggerProperty("", "teardown", "", "*", "", new ArrayList<>());
+        PipelineTriggerGlobalConfiguration.get().setRules(Arrays.asList(
+                new DefaultTriggerRule("team-a-* team-b-api", teamDefaults),
+                new DefaultTriggerRule("*", catchAll)));
+
+        WorkflowMultiBranchProject teamProject = jenkins.createProject(WorkflowMultiBranchProject.class, "team-a-web");
+        WorkflowMultiBranchProject otherProject = jenkins.createProject(WorkflowMultiBranchProject.class, "other");
+        WorkflowMultiBranchProject ownProject = jenkins.createProject(WorkflowMultiBranchProject.class, "team-a-own");
+        PipelineTriggerProperty ownProperty = new PipelineTriggerProperty("", "", "", "*", "", new ArrayList<>());
+        ownProject.getProperties().add(ownProperty);
+
+        Assert.assertSame(teamDefaults, PipelineTriggerGlobalConfiguration.getEffectiveProperty(teamProject));
+        Assert.assertSame(catchAll, PipelineTriggerGlobalConfiguration.getEffectiveProperty(otherProject));
+        Assert.assertSame(ownProperty, PipelineTriggerGlobalConfiguration.getEffectiveProperty(ownProject));
+        // Defaults are evaluated on the fly, never copied into the projects
+        Assert.assertNull(teamProject.getProperties().get(PipelineTriggerProperty.class));
+
+        PipelineTriggerGlobalConfiguration.get().setRules(new ArrayList<>());
+        Assert.assertNull(PipelineTriggerGlobalConfiguration.getEffectiveProperty(teamProject));
+    }
+
+    @Test
+    public void testDefaultRulesFollowMovedJobs() throws Exception {
+        FreeStyleProject provision = jenkins.createFreeStyleProject("provision");
+        PipelineTriggerProperty defaults = new PipelineTriggerProperty("provision", "", "", "*", "", new ArrayList<>());
+        PipelineTriggerGlobalConfiguration configuration = PipelineTriggerGlobalConfiguration.get();
+        configuration.setRules(Collections.singletonList(new DefaultTriggerRule("*", defaults)));
+
+        provision.renameTo("provisioning");
+        Assert.assertEquals("provisioning", defaults.getCreateActionJobsToTrigger());
+        Assert.assertTrue(configuration.getConfigFile().asString().contains("provisioning"));
+    }
+}
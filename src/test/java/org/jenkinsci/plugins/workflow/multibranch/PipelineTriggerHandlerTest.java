@@ -0,0 +1,68 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestExtension;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class PipelineTriggerHandlerTest {
+
+    private static final BlockingQueue<PipelineTriggerEvent> EVENTS = new LinkedBlockingQueue<>();
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testHandlersNotifiedWithoutActionJobs() throws Exception {
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("", "", "", "*", "release-*", new ArrayList<>());
+        property.setHandlers(Collections.singletonList(new RecordingHandler()));
+        project.getProperties().add(property);
+        Assert.assertFalse(property.isRunDeleteTriggerActive());
+
+        property.triggerActionJobs(property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master")),
+                Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction);
+        PipelineTriggerEvent event = EVENTS.poll(10, TimeUnit.SECONDS);
+        Assert.assertNotNull(event);
+        Assert.assertEquals(PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction, event.getType());
+        Assert.assertEquals("project/PR-1", event.getProjectFullName());
+        Assert.assertEquals("feature", event.getParameters().get(PipelineTriggerProperty.sourceBranchName));
+
+        // Excluded branches and event types the handler does not handle are never passed
+        property.triggerActionJobs(property.createBranchEventContext("release-1", "project/release-1", new PullRequestInfo("", "")),
+                Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction);
+        property.triggerActionJobs(property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master")),
+                Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.updatePipelineAction);
+        Assert.assertNull(EVENTS.poll(2, TimeUnit.SECONDS));
+        Assert.assertEquals(0, jenkins.jenkins.getQueue().getItems().length);
+    }
+
+    public static class RecordingHandler extends PipelineTriggerHandler {
+
+        @DataBoundConstructor
+        public RecordingHandler() {
+        }
+
+        @Override
+        public boolean isApplicable(PipelineTriggerProperty.PipelineTriggerBuildAction type) {
+            return type == PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction;
+        }
+
+        @Override
+        public void handle(PipelineTriggerEvent event) {
+            EVENTS.add(event);
+        }
+
+        @TestExtension
+        public static class DescriptorImpl extends PipelineTriggerHandlerDescriptor {
+        }
+    }
+}
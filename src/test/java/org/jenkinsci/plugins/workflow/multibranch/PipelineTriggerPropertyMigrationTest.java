@@ -0,0 +1,41 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.Items;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+public class PipelineTriggerPropertyMigrationTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testOldConfigurationIsMigratedWithoutResolvingJobs() throws Exception {
+        String xml = "<org.jenkinsci.plugins.workflow.multibranch.PipelineTriggerProperty>" +
+                "<createActionJobsToTrigger>provision, folder/notify</createActionJobsToTrigger>" +
+                "<deleteActionJobsToTrigger>teardown</deleteActionJobsToTrigger>" +
+                "<actionJobsToTriggerOnRunDelete></actionJobsToTriggerOnRunDelete>" +
+                "<quitePeriod>0</quitePeriod>" +
+                "<branchIncludeFilter>*</branchIncludeFilter>" +
+                "<branchExcludeFilter></branchExcludeFilter>" +
+                "</org.jenkinsci.plugins.workflow.multibranch.PipelineTriggerProperty>";
+        PipelineTriggerProperty property = (PipelineTriggerProperty) Items.XSTREAM2.fromXML(xml);
+
+        Assert.assertEquals("provision,folder/notify", property.getCreateActionJobsToTrigger());
+        Assert.assertEquals("teardown", property.getDeleteActionJobsToTrigger());
+        Assert.assertTrue(property.getActionJobReferencesOnRunDelete().isEmpty());
+        Assert.assertFalse(property.isRunDeleteTriggerActive());
+        Assert.assertTrue(property.getAdditionalParameters().isEmpty());
+
+        // Jobs are resolved when they are needed, so jobs created after loading are found as well
+        Assert.assertTrue(property.getCreateActionJobs().isEmpty());
+        jenkins.createFreeStyleProject("provision");
+        Assert.assertEquals(1, property.getCreateActionJobs().size());
+
+        String saved = Items.XSTREAM2.toXML(property);
+        Assert.assertFalse(saved.contains("createActionJobsToTrigger"));
+        Assert.assertTrue(saved.contains("<fullName>folder/notify</fullName>"));
+    }
+}
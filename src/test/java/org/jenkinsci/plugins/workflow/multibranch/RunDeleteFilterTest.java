@@ -0,0 +1,64 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.ParametersAction;
+import hudson.model.ParametersDefinitionProperty;
+import hudson.model.StringParameterDefinition;
+import hudson.model.StringParameterValue;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+public class RunDeleteFilterTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testPredicates() throws Exception {
+        FreeStyleProject project = jenkins.createFreeStyleProject("pipeline");
+        project.addProperty(new ParametersDefinitionProperty(new StringParameterDefinition("ENVIRONMENT", "")));
+        FreeStyleBuild build = jenkins.buildAndAssertSuccess(project);
+        FreeStyleBuild parameterizedBuild = jenkins.assertBuildStatusSuccess(
+                project.scheduleBuild2(0, new ParametersAction(new StringParameterValue("ENVIRONMENT", "staging"))));
+
+        RunDeleteFilter filter = new RunDeleteFilter();
+        Assert.assertTrue(filter.matches(build));
+
+        filter.setResults("FAILURE, ABORTED");
+        Assert.assertFalse(filter.matches(build));
+        filter.setResults("UNSTABLE,SUCCESS");
+        Assert.assertTrue(filter.matches(build));
+        // Unknown results are ignored instead of being read as FAILURE
+        Assert.assertNull(RunDeleteFilter.parseResult("BOGUS"));
+        filter.setResults("BOGUS");
+        Assert.assertFalse(filter.matches(build));
+        filter.setResults("BOGUS,SUCCESS");
+        Assert.assertTrue(filter.matches(build));
+
+        filter.setMaxAgeDays(1);
+        Assert.assertTrue(filter.matches(build));
+
+        filter.setMarkerAction("ParametersAction");
+        Assert.assertTrue(filter.matches(parameterizedBuild));
+        filter.setMarkerAction("hudson.model.CauseAction");
+        Assert.assertTrue(filter.matches(build));
+        filter.setMarkerAction("NoSuchAction");
+        Assert.assertFalse(filter.matches(build));
+        filter.setMarkerAction("");
+
+        filter.setParameterName("ENVIRONMENT");
+        filter.setParameterValue("staging");
+        Assert.assertTrue(filter.matches(parameterizedBuild));
+        filter.setParameterValue("production");
+        Assert.assertFalse(filter.matches(parameterizedBuild));
+        filter.setParameterValue("");
+        Assert.assertTrue(filter.matches(parameterizedBuild));
+
+        filter.setParameterName("");
+        filter.setRequireArtifacts(true);
+        Assert.assertFalse(filter.matches(build));
+    }
+}
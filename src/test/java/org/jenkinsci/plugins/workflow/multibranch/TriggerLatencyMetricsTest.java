@@ -0,0 +1,43 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class TriggerLatencyMetricsTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testLatencyRecordedOnStart() throws Exception {
+        FreeStyleProject teardown = jenkins.createFreeStyleProject("teardown");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("", "teardown", "", "*", "", new ArrayList<>());
+        project.getProperties().add(property);
+        long eventTime = System.currentTimeMillis() - 2000;
+
+        property.triggerActionJobs(property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master"), eventTime),
+                Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction);
+        jenkins.waitUntilNoActivity();
+
+        Assert.assertEquals(eventTime, teardown.getLastBuild().getAction(BranchEventAction.class).getEventTime());
+        TriggerLatencyMetrics.JobLatency latency = TriggerLatencyMetrics.get().getJobLatency("teardown");
+        Assert.assertNotNull(latency);
+        Assert.assertEquals(1, latency.getQueueWait().getCount());
+        Assert.assertEquals(1, latency.getStartLatency().getCount());
+        Assert.assertTrue(latency.getStartLatency().getSumMillis() >= 2000);
+        // Cumulative: the 2 s latency is not below 1 s, but below 5 s
+        Assert.assertEquals(0, latency.getStartLatency().getBucketCounts()[2]);
+        Assert.assertEquals(1, latency.getStartLatency().getBucketCounts()[3]);
+
+        JenkinsRule.WebClient webClient = jenkins.createWebClient();
+        String prometheus = webClient.goTo("actionTriggerMetrics/prometheus", "text/plain").getWebResponse().getContentAsString();
+        Assert.assertTrue(prometheus.contains("multibranch_action_trigger_start_latency_seconds_count{job=\"teardown\"} 1"));
+    }
+}
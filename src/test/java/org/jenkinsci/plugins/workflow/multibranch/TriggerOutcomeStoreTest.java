@@ -0,0 +1,71 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.User;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockAuthorizationStrategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TriggerOutcomeStoreTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    @Test
+    public void testOutcomesRecorded() throws Exception {
+        FreeStyleProject cleanup = jenkins.createFreeStyleProject("cleanup");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("", "cleanup", "", "*", "", new ArrayList<>());
+        project.getProperties().add(property);
+        BranchEventContext context = property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master"));
+
+        property.triggerActionJobs(context, Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction);
+        jenkins.waitUntilNoActivity();
+        cleanup.disable();
+        property.triggerActionJobs(context, Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction);
+
+        List<TriggerOutcome> outcomes = TriggerOutcomeStore.get(project).getOutcomes();
+        Assert.assertEquals(2, outcomes.size());
+        Assert.assertEquals(TriggerOutcome.Status.REFUSED, outcomes.get(0).getStatus());
+        TriggerOutcome completed = outcomes.get(1);
+        Assert.assertEquals(TriggerOutcome.Status.COMPLETED, completed.getStatus());
+        Assert.assertEquals("project/PR-1", completed.getBranchFullName());
+        Assert.assertEquals("cleanup", completed.getJobFullName());
+        Assert.assertTrue(completed.getQueueId() > 0);
+        Assert.assertEquals(1, completed.getBuildNumber());
+        Assert.assertEquals("SUCCESS", completed.getResult());
+        Assert.assertTrue(completed.getStartLatency() >= 0);
+        Assert.assertNotNull(project.getAction(TriggerOutcomesAction.class));
+    }
+
+    @Test
+    public void testOutcomesFilteredByReadPermission() throws Exception {
+        jenkins.createFreeStyleProject("cleanup");
+        WorkflowMultiBranchProject project = jenkins.createProject(WorkflowMultiBranchProject.class, "project");
+        PipelineTriggerProperty property = new PipelineTriggerProperty("", "cleanup", "", "*", "", new ArrayList<>());
+        project.getProperties().add(property);
+        property.triggerActionJobs(property.createBranchEventContext("PR-1", "project/PR-1", new PullRequestInfo("feature", "master")),
+                Collections.emptyList(), PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction);
+        jenkins.waitUntilNoActivity();
+        jenkins.jenkins.setSecurityRealm(jenkins.createDummySecurityRealm());
+        jenkins.jenkins.setAuthorizationStrategy(new MockAuthorizationStrategy()
+                .grant(Jenkins.READ).everywhere().to("alice")
+                .grant(Item.READ).onItems(project).to("alice"));
+
+        TriggerOutcomesAction action = new TriggerOutcomesAction(project);
+        Assert.assertEquals(1, action.getOutcomes().size());
+        try (ACLContext ignored = ACL.as(User.getById("alice", true))) {
+            Assert.assertTrue(action.getOutcomes().isEmpty());
+        }
+    }
+}
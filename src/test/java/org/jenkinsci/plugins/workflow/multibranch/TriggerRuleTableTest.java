@@ -0,0 +1,64 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TriggerRuleTableTest {
+
+    private static TriggerRule rule(String branchFilter, String job, boolean onCreate, boolean onDelete) {
+        TriggerRule rule = new TriggerRule(branchFilter, Collections.singletonList(new ActionJobReference(job)));
+        rule.setOnCreate(onCreate);
+        rule.setOnDelete(onDelete);
+        return rule;
+    }
+
+    private static List<String> names(List<ActionJobReference> references) {
+        List<String> names = new ArrayList<>();
+        for (ActionJobReference reference : references)
+            names.add(reference.getFullName());
+        return names;
+    }
+
+    private static BranchFilter.Subject branch(String name) {
+        return new BranchFilter.Subject(name, PullRequestInfo.HeadCategory.BRANCH, "", false);
+    }
+
+    @Test
+    public void testDispatchByEventAndPrefix() {
+        TriggerRuleTable table = new TriggerRuleTable(Arrays.asList(
+                rule("release-*", "release-cleanup", false, true),
+                rule("PR-* hotfix", "pr-cleanup", false, true),
+                rule("", "notify", true, true),
+                rule("regex:.*-1", "first", true, false),
+                rule("release-1*", "release-1-setup", true, false)));
+
+        Assert.assertTrue(table.hasRules(PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction));
+        Assert.assertFalse(table.hasRules(PipelineTriggerProperty.PipelineTriggerBuildAction.updatePipelineAction));
+        Assert.assertEquals(Arrays.asList("release-cleanup", "notify"),
+                names(table.getMatchingReferences(PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction, branch("release-2"))));
+        Assert.assertEquals(Arrays.asList("pr-cleanup", "notify"),
+                names(table.getMatchingReferences(PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction, branch("PR-7"))));
+        Assert.assertEquals(Arrays.asList("pr-cleanup", "notify"),
+                names(table.getMatchingReferences(PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction, branch("hotfix"))));
+        Assert.assertEquals(Collections.singletonList("notify"),
+                names(table.getMatchingReferences(PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction, branch("hotfix-2"))));
+        Assert.assertEquals(Arrays.asList("notify", "first", "release-1-setup"),
+                names(table.getMatchingReferences(PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction, branch("release-1"))));
+        Assert.assertEquals(Arrays.asList("release-cleanup", "pr-cleanup", "notify"),
+                names(table.getReferences(PipelineTriggerProperty.PipelineTriggerBuildAction.deletePipelineAction)));
+    }
+
+    @Test
+    public void testLiteralPrefixes() {
+        Assert.assertEquals(Arrays.asList("release-", "master"), BranchFilter.literalPrefixes("release-* master"));
+        Assert.assertNull(BranchFilter.literalPrefixes("release-* *-fix"));
+        Assert.assertNull(BranchFilter.literalPrefixes("PR-*&origin:fork"));
+        Assert.assertNull(BranchFilter.literalPrefixes("type:tag"));
+        Assert.assertNull(BranchFilter.literalPrefixes(""));
+    }
+}
@@ -0,0 +1,118 @@
+package org.jenkinsci.plugins.workflow.multibranch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import hudson.ExtensionList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WebhookNotificationHandlerTest {
+
+    @Rule
+    public JenkinsRule jenkins = new JenkinsRule();
+
+    private HttpServer server;
+    private final BlockingQueue<JsonNode> requests = new LinkedBlockingQueue<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/events", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+                requests.add(new ObjectMapper().readTree(body));
+                exchange.sendResponseHeaders(204, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private String getUrl(String name) {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/events/" + name;
+    }
+
+    private PipelineTriggerEvent createEvent(String branchName) {
+        PipelineTriggerProperty property = new PipelineTriggerProperty("", "", "", "*", "", new ArrayList<>());
+        return new PipelineTriggerEvent(PipelineTriggerProperty.PipelineTriggerBuildAction.createPipelineAction,
+                property.createBranchEventContext(branchName, "project/" + branchName, new PullRequestInfo("", "")), null);
+    }
+
+    @Test
+    public void testFullBatchSentWithoutLinger() throws Exception {
+        WebhookNotificationHandler handler = new WebhookNotificationHandler(getUrl("batch"));
+        handler.setBatchSize(2);
+        handler.setLingerMillis(TimeUnit.MINUTES.toMillis(10));
+        handler.handle(createEvent("PR-1"));
+        handler.handle(createEvent("PR-2"));
+
+        JsonNode batch = requests.poll(10, TimeUnit.SECONDS);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals("createPipelineAction", batch.get(0).get("event").asText());
+        Assert.assertEquals("project/PR-1", batch.get(0).get("project").asText());
+        Assert.assertEquals("PR-2", batch.get(1).get("parameters").get(PipelineTriggerProperty.projectNameParameterKey).asText());
+    }
+
+    @Test
+    public void testFailedBatchRetried() throws Exception {
+        failuresLeft.set(2);
+        WebhookNotificationHandler handler = new WebhookNotificationHandler(getUrl("retry"));
+        handler.setLingerMillis(0);
+        handler.handle(createEvent("PR-1"));
+
+        JsonNode batch = requests.poll(30, TimeUnit.SECONDS);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(1, batch.size());
+        Assert.assertEquals(0, WebhookDeliveryQueue.get(getUrl("retry"), 100, 0, 3).getPendingCount());
+    }
+
+    @Test
+    public void testFailedBatchSpilledAndReplayed() throws Exception {
+        failuresLeft.set(Integer.MAX_VALUE);
+        WebhookNotificationHandler handler = new WebhookNotificationHandler(getUrl("spill"));
+        handler.setLingerMillis(0);
+        handler.setMaxRetries(0);
+        handler.handle(createEvent("PR-1"));
+        WebhookDeliveryQueue queue = WebhookDeliveryQueue.get(getUrl("spill"), 100, 0, 0);
+        File spillFile = queue.getSpillFile();
+        for (int i = 0; i < 100 && !spillFile.isFile(); i++)
+            Thread.sleep(100);
+        Assert.assertTrue(spillFile.isFile());
+        Assert.assertNull(requests.poll(1, TimeUnit.SECONDS));
+
+        failuresLeft.set(0);
+        ExtensionList.lookupSingleton(WebhookDeliveryQueue.Registry.class).doRun();
+        JsonNode batch = requests.poll(10, TimeUnit.SECONDS);
+        Assert.assertNotNull(batch);
+        Assert.assertEquals(1, batch.size());
+        Assert.assertEquals("project/PR-1", batch.get(0).get("project").asText());
+        Assert.assertFalse(spillFile.isFile());
+    }
+}